@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.benchmark;
+
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import com.yookue.springstarter.messageresource.support.CompiledResourceMessageSource;
+
+
+/**
+ * Benchmarks for the allocation of argument-less messages of {@link com.yookue.springstarter.messageresource.support.CompiledResourceMessageSource}
+ * <p>
+ * Run with {@code -prof gc}, the {@code gc.alloc.rate.norm} of {@code plainMessage} should be {@code 0 B/op}
+ *
+ * @author David Hsing
+ */
+@State(value = Scope.Benchmark)
+@BenchmarkMode(value = Mode.AverageTime)
+@OutputTimeUnit(value = TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@SuppressWarnings("unused")
+public class AllocationBenchmark {
+    private BenchmarkBundleFixture fixture;
+    private CompiledResourceMessageSource messageSource;
+
+    @Setup(value = Level.Trial)
+    public void setup() throws IOException {
+        fixture = new BenchmarkBundleFixture(10, 4, 100);
+        messageSource = new CompiledResourceMessageSource();
+        messageSource.setBeanClassLoader(fixture.getScanClassLoader());
+        messageSource.setBasenames(fixture.getBaseNames().toArray(String[]::new));
+        messageSource.getMessage(BenchmarkBundleFixture.PLAIN_CODE, null, Locale.US);
+    }
+
+    @TearDown(value = Level.Trial)
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public String plainMessage() {
+        return messageSource.getMessage(BenchmarkBundleFixture.PLAIN_CODE, null, Locale.US);
+    }
+
+    @Benchmark
+    public String argumentMessage() {
+        return messageSource.getMessage(BenchmarkBundleFixture.ARGUMENT_CODE, new Object[] {"argument", 1}, Locale.US);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.benchmark;
+
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import jakarta.annotation.Nonnull;
+import com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils;
+import lombok.Getter;
+
+
+/**
+ * Synthetic classpath with {@code bundles} base names by {@code locales} locales for benchmarks
+ *
+ * @author David Hsing
+ */
+@Getter
+@SuppressWarnings("unused")
+public class BenchmarkBundleFixture implements AutoCloseable {
+    public static final String SCAN_RESOURCE = "lang";    // $NON-NLS-1$
+    public static final String PLAIN_CODE = "message.plain.0";    // $NON-NLS-1$
+    public static final String ARGUMENT_CODE = "message.argument.0";    // $NON-NLS-1$
+    private static final Locale[] CANDIDATE_LOCALES = {Locale.ENGLISH, Locale.US, Locale.UK, Locale.FRENCH, Locale.FRANCE, Locale.GERMAN, Locale.GERMANY, Locale.ITALIAN, Locale.ITALY, Locale.JAPANESE, Locale.JAPAN, Locale.KOREAN, Locale.KOREA, Locale.CHINESE, Locale.SIMPLIFIED_CHINESE, Locale.TRADITIONAL_CHINESE};
+
+    private final Path bundleDirectory;
+    private final Path indexDirectory;
+    private final List<Locale> locales;
+    private final List<String> baseNames;
+    private final URLClassLoader scanClassLoader;
+    private final URLClassLoader indexClassLoader;
+
+    /**
+     * Constructs a new synthetic classpath
+     *
+     * @param bundles the count of base names
+     * @param locales the count of locales for each base name, at most 16
+     * @param codes the count of message codes in each bundle file
+     */
+    public BenchmarkBundleFixture(int bundles, int locales, int codes) throws IOException {
+        this.bundleDirectory = Files.createTempDirectory("message-resource-bundles");
+        this.indexDirectory = Files.createTempDirectory("message-resource-index");
+        this.locales = Arrays.asList(Arrays.copyOf(CANDIDATE_LOCALES, Math.min(locales, CANDIDATE_LOCALES.length)));
+        Map<String, Set<Locale>> indexes = new LinkedHashMap<>();
+        for (int i = 0; i < bundles; i++) {
+            String baseName = SCAN_RESOURCE + "/module" + (i % 16) + "/messages" + i;
+            Set<Locale> bundleLocales = new LinkedHashSet<>();
+            writeBundle(baseName, Locale.ROOT, codes);
+            bundleLocales.add(Locale.ROOT);
+            for (Locale locale : this.locales) {
+                writeBundle(baseName, locale, codes);
+                bundleLocales.add(locale);
+            }
+            indexes.put(baseName, bundleLocales);
+        }
+        this.baseNames = List.copyOf(indexes.keySet());
+        Path indexFile = indexDirectory.resolve(MessageResourceIndexUtils.INDEX_LOCATION);
+        Files.createDirectories(indexFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8)) {
+            MessageResourceIndexUtils.writeIndex(indexes, writer);
+        }
+        ClassLoader parent = BenchmarkBundleFixture.class.getClassLoader();
+        this.scanClassLoader = new URLClassLoader(new URL[] {toUrl(bundleDirectory)}, parent);
+        this.indexClassLoader = new URLClassLoader(new URL[] {toUrl(bundleDirectory), toUrl(indexDirectory)}, parent);
+    }
+
+    @Override
+    public void close() throws IOException {
+        scanClassLoader.close();
+        indexClassLoader.close();
+        deleteRecursive(bundleDirectory);
+        deleteRecursive(indexDirectory);
+    }
+
+    private void writeBundle(@Nonnull String baseName, @Nonnull Locale locale, int codes) throws IOException {
+        String suffix = Locale.ROOT.equals(locale) ? "" : "_" + locale;
+        Path file = bundleDirectory.resolve(baseName + suffix + ".properties");
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < codes; i++) {
+                writer.write("message.plain." + i + "=Plain message " + i + " of " + baseName + suffix + System.lineSeparator());
+                writer.write("message.argument." + i + "=Message {0} with argument {1} of " + baseName + suffix + System.lineSeparator());
+            }
+        }
+    }
+
+    @Nonnull
+    private static URL toUrl(@Nonnull Path path) {
+        try {
+            return path.toUri().toURL();
+        } catch (MalformedURLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void deleteRecursive(@Nonnull Path path) throws IOException {
+        try (Stream<Path> stream = Files.walk(path)) {
+            stream.sorted(Comparator.reverseOrder()).forEach(element -> {
+                try {
+                    Files.deleteIfExists(element);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.benchmark;
+
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.context.ResourceLoaderAware;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import com.yookue.springstarter.messageresource.catalog.MessageCatalogProvider;
+import com.yookue.springstarter.messageresource.config.MessageResourceAutoConfiguration;
+import com.yookue.springstarter.messageresource.enumeration.MessageEngineType;
+import com.yookue.springstarter.messageresource.enumeration.MessageStorageType;
+import com.yookue.springstarter.messageresource.property.MessageResourceProperties;
+import com.yookue.springstarter.messageresource.support.MessageHotKeyCache;
+import com.yookue.springstarter.messageresource.support.MessageResourcePreloader;
+
+
+/**
+ * Benchmark for the retained heap of the message sources, after all the locales have been looked up
+ * <p>
+ * Usage: {@code FootprintBenchmark [bundles] [locales] [codes]}, the defaults are {@code 10 16 1000}, each code is written as a plain and an argument message
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+public abstract class FootprintBenchmark {
+    private static final String[] ENGINES = {"standard", "reloadable", "compiled", "compiled-compact", "compiled-packed"};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int bundles = (args.length > 0) ? Integer.parseInt(args[0]) : 10;
+        int locales = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+        int codes = (args.length > 2) ? Integer.parseInt(args[2]) : 1000;
+        try (BenchmarkBundleFixture fixture = new BenchmarkBundleFixture(bundles, locales, codes)) {
+            System.out.printf("%d bundles x %d locales x %d entries%n", bundles, fixture.getLocales().size() + 1, codes * 2);
+            System.out.printf("%-18s %12s%n", "engine", "heap (KiB)");
+            for (String engine : ENGINES) {
+                long baseline = usedHeap();
+                MessageSource messageSource = createMessageSource(fixture, engine);
+                MessageResourcePreloader.preloadBundles(messageSource, fixture.getLocales(), null);
+                long footprint = usedHeap() - baseline;
+                Reference.reachabilityFence(messageSource);
+                System.out.printf("%-18s %,12d%n", engine, footprint / 1024L);
+            }
+        }
+    }
+
+    private static MessageSource createMessageSource(BenchmarkBundleFixture fixture, String engine) {
+        MessageResourceProperties properties = new MessageResourceProperties();
+        MessageResourceProperties.MessageBundle props = properties.getMessageBundle();
+        props.setAddInternalBundles(false);
+        props.setUseIndex(false);
+        props.setScanResources(List.of(BenchmarkBundleFixture.SCAN_RESOURCE));
+        props.setReloadable("reloadable".equals(engine));
+        props.setEngine(engine.startsWith("compiled") ? MessageEngineType.COMPILED : MessageEngineType.STANDARD);
+        props.setStorage(engine.endsWith("compact") ? MessageStorageType.COMPACT : (engine.endsWith("packed") ? MessageStorageType.PACKED : MessageStorageType.STANDARD));
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(fixture.getScanClassLoader());
+        try {
+            MessageSource result = new MessageResourceAutoConfiguration().messageSource(new StaticListableBeanFactory(), new StandardEnvironment(), properties, new StaticListableBeanFactory().getBeanProvider(MessageCatalogProvider.class), new StaticListableBeanFactory().getBeanProvider(MessageHotKeyCache.class));
+            if (result instanceof BeanClassLoaderAware aware) {
+                aware.setBeanClassLoader(fixture.getScanClassLoader());
+            }
+            if (result instanceof ResourceLoaderAware aware) {
+                aware.setResourceLoader(new DefaultResourceLoader(fixture.getScanClassLoader()));
+            }
+            return result;
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(100L);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
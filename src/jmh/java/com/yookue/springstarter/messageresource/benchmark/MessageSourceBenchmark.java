@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.benchmark;
+
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.context.ResourceLoaderAware;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import com.yookue.springstarter.messageresource.catalog.MessageCatalogProvider;
+import com.yookue.springstarter.messageresource.config.MessageResourceAutoConfiguration;
+import com.yookue.springstarter.messageresource.enumeration.MessageEngineType;
+import com.yookue.springstarter.messageresource.property.MessageResourceProperties;
+import com.yookue.springstarter.messageresource.support.MessageHotKeyCache;
+
+
+/**
+ * Benchmarks for the message sources built by {@link com.yookue.springstarter.messageresource.config.MessageResourceAutoConfiguration#messageSource}
+ * <p>
+ * Run with {@code -t <threads>} for a specific concurrency, or {@link com.yookue.springstarter.messageresource.benchmark.MessageSourceBenchmarkRunner} for 1 to 64 threads
+ *
+ * @author David Hsing
+ */
+@State(value = Scope.Benchmark)
+@BenchmarkMode(value = {Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(value = TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+@SuppressWarnings("unused")
+public class MessageSourceBenchmark {
+    @Param(value = {"standard", "reloadable", "compiled"})
+    private String engine;
+
+    @Param(value = {"50"})
+    private int bundles;
+
+    @Param(value = {"4"})
+    private int locales;
+
+    private BenchmarkBundleFixture fixture;
+    private MessageSource messageSource;
+    private String[] plainCodes;
+    private String[] argumentCodes;
+    private String[] missingCodes;
+    private Locale[] requestLocales;
+
+    @Setup(value = Level.Trial)
+    public void setup() throws IOException {
+        fixture = new BenchmarkBundleFixture(bundles, locales, 100);
+        plainCodes = new String[100];
+        argumentCodes = new String[100];
+        missingCodes = new String[100];
+        for (int i = 0; i < 100; i++) {
+            plainCodes[i] = "message.plain." + i;
+            argumentCodes[i] = "message.argument." + i;
+            missingCodes[i] = "message.missing." + i;
+        }
+        List<Locale> fixtureLocales = fixture.getLocales();
+        requestLocales = fixtureLocales.toArray(Locale[]::new);
+        messageSource = createMessageSource();
+    }
+
+    @TearDown(value = Level.Trial)
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public String plainMessage(Cursor cursor) {
+        int index = cursor.next();
+        return messageSource.getMessage(plainCodes[index % plainCodes.length], null, requestLocales[index % requestLocales.length]);
+    }
+
+    @Benchmark
+    public String argumentMessage(Cursor cursor) {
+        int index = cursor.next();
+        return messageSource.getMessage(argumentCodes[index % argumentCodes.length], new Object[] {"argument", index}, requestLocales[index % requestLocales.length]);
+    }
+
+    @Benchmark
+    public String missingMessage(Cursor cursor) {
+        int index = cursor.next();
+        return messageSource.getMessage(missingCodes[index % missingCodes.length], null, null, requestLocales[index % requestLocales.length]);
+    }
+
+    private MessageSource createMessageSource() {
+        MessageResourceProperties properties = new MessageResourceProperties();
+        MessageResourceProperties.MessageBundle props = properties.getMessageBundle();
+        props.setAddInternalBundles(false);
+        props.setUseIndex(false);
+        props.setScanResources(List.of(BenchmarkBundleFixture.SCAN_RESOURCE));
+        props.setEngine("compiled".equals(engine) ? MessageEngineType.COMPILED : MessageEngineType.STANDARD);
+        if ("reloadable".equals(engine)) {
+            props.setReloadable(true);
+            props.setCacheDuration(Duration.ofSeconds(10));
+        }
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(fixture.getScanClassLoader());
+        try {
+            MessageSource result = new MessageResourceAutoConfiguration().messageSource(new StaticListableBeanFactory(), new StandardEnvironment(), properties, new StaticListableBeanFactory().getBeanProvider(MessageCatalogProvider.class), new StaticListableBeanFactory().getBeanProvider(MessageHotKeyCache.class));
+            if (result instanceof BeanClassLoaderAware aware) {
+                aware.setBeanClassLoader(fixture.getScanClassLoader());
+            }
+            if (result instanceof ResourceLoaderAware aware) {
+                aware.setResourceLoader(new DefaultResourceLoader(fixture.getScanClassLoader()));
+            }
+            return result;
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+
+    /**
+     * Per thread cursor for rotating the codes and locales
+     */
+    @State(value = Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        public int next() {
+            index = (index + 1) & Integer.MAX_VALUE;
+            return index;
+        }
+    }
+}
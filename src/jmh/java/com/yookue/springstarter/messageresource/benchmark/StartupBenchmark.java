@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.benchmark;
+
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import com.yookue.springstarter.messageresource.util.MessageResourceDetectorUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils;
+
+
+/**
+ * Benchmarks for comparing the bundle detection by classpath scanning and by build-time index at startup
+ *
+ * @author David Hsing
+ */
+@State(value = Scope.Benchmark)
+@BenchmarkMode(value = Mode.SingleShotTime)
+@OutputTimeUnit(value = TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1)
+@SuppressWarnings("unused")
+public class StartupBenchmark {
+    private static final List<String> SCAN_RESOURCES = Collections.singletonList(BenchmarkBundleFixture.SCAN_RESOURCE);
+
+    @Param(value = {"10", "100", "1000"})
+    private int bundles;
+
+    @Param(value = {"4"})
+    private int locales;
+
+    private BenchmarkBundleFixture fixture;
+
+    @Setup(value = Level.Trial)
+    public void setup() throws IOException {
+        fixture = new BenchmarkBundleFixture(bundles, locales, 10);
+    }
+
+    @TearDown(value = Level.Trial)
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Map<String, Set<Locale>> scanClasspath() {
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(fixture.getScanClassLoader());
+        try {
+            return MessageResourceDetectorUtils.detectBundleLocales(true, SCAN_RESOURCES);
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Set<Locale>> readIndex() {
+        return MessageResourceIndexUtils.loadIndex(fixture.getIndexClassLoader(), true, SCAN_RESOURCES);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.aot;
+
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
+import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
+import com.yookue.commonplexus.javaseutil.util.StringUtilsWraps;
+import com.yookue.commonplexus.springutil.constant.SpringPropertyConst;
+import com.yookue.springstarter.messageresource.config.MessageResourceAutoConfiguration;
+import com.yookue.springstarter.messageresource.property.MessageResourceProperties;
+import com.yookue.springstarter.messageresource.util.MessageResourceBinaryUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceDetectorUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils;
+
+
+/**
+ * {@link org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor} for detecting the message bundles at build time
+ * <p>
+ * The detected bundles are written to {@code META-INF/message-resource-aot.idx}, which the message source bean reads instead of scanning the classpath
+ * when running with the AOT artifacts (e.g. a native image), and the resource hints of the bundle files are registered for each base name
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils
+ */
+@SuppressWarnings("unused")
+public class MessageResourceAotProcessor implements BeanFactoryInitializationAotProcessor {
+    private static final String FILE_EXTENSION = CharVariantConst.DOT + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
+
+    @Override
+    @Nullable
+    public BeanFactoryInitializationAotContribution processAheadOfTime(@Nonnull ConfigurableListableBeanFactory beanFactory) {
+        if (!beanFactory.containsBeanDefinition(MessageResourceAutoConfiguration.MESSAGE_SOURCE) || !beanFactory.containsBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME)) {
+            return null;
+        }
+        Environment environment = beanFactory.getBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME, Environment.class);
+        MessageResourceProperties properties = Binder.get(environment).bind(MessageResourceAutoConfiguration.PROPERTIES_PREFIX, MessageResourceProperties.class).orElseGet(MessageResourceProperties::new);
+        MessageResourceProperties.MessageBundle props = properties.getMessageBundle();
+        List<String> trustedPackages = AutoConfigurationPackages.has(beanFactory) ? AutoConfigurationPackages.get(beanFactory) : null;
+        Map<String, Set<Locale>> bundleLocales = detectBundleLocales(props, beanFactory.getBeanClassLoader(), trustedPackages);
+        Set<String> baseNames = new LinkedHashSet<>(bundleLocales.keySet());
+        if (BooleanUtils.isTrue(props.getAddInternalBundles())) {
+            baseNames.addAll(MessageResourceDetectorUtils.detectInternalBaseNames());
+        }
+        Set<String> configNames = StringUtilsWraps.splitByToSet(environment.getProperty(SpringPropertyConst.MESSAGES_BASENAME), CharVariantConst.COMMA, true);
+        if (!CollectionUtils.isEmpty(configNames)) {
+            configNames.stream().filter(StringUtils::isNotBlank).forEach(baseNames::add);
+        }
+        String index = writeIndex(bundleLocales);
+        return (generationContext, code) -> {
+            generationContext.getGeneratedFiles().addResourceFile(MessageResourceIndexUtils.AOT_INDEX_LOCATION, index);
+            registerHints(generationContext.getRuntimeHints(), baseNames);
+        };
+    }
+
+    @Nonnull
+    private Map<String, Set<Locale>> detectBundleLocales(@Nonnull MessageResourceProperties.MessageBundle props, @Nullable ClassLoader loader, @Nullable List<String> trustedPackages) {
+        boolean scanRecursive = BooleanUtils.isTrue(props.getScanRecursive());
+        Map<String, Set<Locale>> result = null;
+        if (BooleanUtils.isTrue(props.getUseIndex())) {
+            result = MessageResourceIndexUtils.loadIndex(ObjectUtils.defaultIfNull(loader, ClassUtils.getDefaultClassLoader()), scanRecursive, props.getScanResources(), trustedPackages);
+        }
+        if (result == null) {
+            result = MessageResourceDetectorUtils.detectBundleLocales(scanRecursive, props.getScanResources(), ObjectUtils.defaultIfNull(props.getScanThreads(), 0));
+        }
+        return (result != null) ? result : Collections.emptyMap();
+    }
+
+    private void registerHints(@Nonnull RuntimeHints hints, @Nonnull Set<String> baseNames) {
+        for (String baseName : baseNames) {
+            String path = StringUtils.removeStart(baseName.replace(CharVariantConst.DOT, CharVariantConst.SLASH), String.valueOf(CharVariantConst.SLASH));
+            hints.resources().registerPattern(path + '*' + FILE_EXTENSION);
+            hints.resources().registerPattern(path + '*' + MessageResourceBinaryUtils.FILE_EXTENSION);
+        }
+    }
+
+    @Nonnull
+    private String writeIndex(@Nonnull Map<String, Set<Locale>> bundleLocales) {
+        StringWriter writer = new StringWriter();
+        try {
+            MessageResourceIndexUtils.writeIndex(bundleLocales, writer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write message resource index to " + MessageResourceIndexUtils.AOT_INDEX_LOCATION, ex);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.aot;
+
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils;
+
+
+/**
+ * {@link org.springframework.aot.hint.RuntimeHintsRegistrar} for the static resources of message resource
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.aot.MessageResourceAotProcessor
+ */
+@SuppressWarnings("unused")
+public class MessageResourceRuntimeHints implements RuntimeHintsRegistrar {
+    @Override
+    public void registerHints(@Nonnull RuntimeHints hints, @Nullable ClassLoader classLoader) {
+        hints.resources().registerPattern(MessageResourceIndexUtils.INDEX_LOCATION);
+        hints.resources().registerPattern(MessageResourceIndexUtils.AOT_INDEX_LOCATION);
+    }
+}
@@ -0,0 +1,531 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.catalog;
+
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.MessageSource;
+import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.support.AbstractMessageSource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import com.yookue.springstarter.messageresource.support.MessageBundleInspectable;
+import com.yookue.springstarter.messageresource.support.MessageBundleStats;
+import com.yookue.springstarter.messageresource.support.MessageCacheStats;
+import com.yookue.springstarter.messageresource.support.MessageHotKeyAware;
+import com.yookue.springstarter.messageresource.support.MessageHotKeyCache;
+import com.yookue.springstarter.messageresource.support.MessagePreloadable;
+import com.yookue.springstarter.messageresource.support.MessageReloadListener;
+import com.yookue.springstarter.messageresource.support.MessageReloadObservable;
+import com.yookue.springstarter.messageresource.support.MessageResolutionCache;
+import com.yookue.springstarter.messageresource.support.MessageResourcePreloader;
+import com.yookue.springstarter.messageresource.util.MessageResourceSizeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.context.MessageSource} that resolves messages from an external catalog, with a local near-cache
+ * <p>
+ * The catalog is loaded as one snapshot for each locale that the provider has, and a lookup walks the snapshots of the candidate locales,
+ * so that the requested locales, however many, never add snapshots nor queries. All the loads run in a background thread, one at a time for each locale,
+ * a lookup only waits for the first load of its locales. After the time to live, the version stamp of the catalog is checked in background,
+ * and the loaded locales are reloaded if it changed, the lookups keep serving the former messages meanwhile.
+ * The codes that are not in the catalog resolve from the parent message source, usually the classpath bundles,
+ * which is not a bean, so the aware callbacks, the reload listeners and the destruction are forwarded to it.
+ * If the catalog of a locale fails to load, the lookups of that locale resolve from the parent message source, until the load is retried in background
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.catalog.MessageCatalogProvider
+ */
+@CommonsLog
+@SuppressWarnings("unused")
+public class CatalogResourceMessageSource extends AbstractMessageSource implements BeanClassLoaderAware, ResourceLoaderAware, DisposableBean, MessageBundleInspectable, MessageHotKeyAware, MessagePreloadable, MessageReloadObservable {
+    public static final String CATALOG_BASENAME = "catalog";    // $NON-NLS-1$
+    public static final long DEFAULT_RETRY_MILLIS = 5000L;
+    public static final int DEFAULT_CHAIN_CACHE_SIZE = 256;
+    private static final String THREAD_PREFIX = "message-catalog-refresher-";    // $NON-NLS-1$
+    private static final String CATALOG_RESOURCE = CATALOG_BASENAME + ":";    // $NON-NLS-1$
+    private static final String CHAIN_CACHE = "catalogChain";    // $NON-NLS-1$
+    private static final ResourceBundle.Control BUNDLE_CONTROL = ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_DEFAULT);
+
+    @Getter
+    private final MessageCatalogProvider catalogProvider;
+    private final AtomicReference<CompletableFuture<CatalogState>> catalogState = new AtomicReference<>();
+    private final ConcurrentMap<Locale, CompletableFuture<CatalogSnapshot>> snapshots = new ConcurrentHashMap<>();
+    private final List<MessageReloadListener> reloadListeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Object executorMonitor = new Object();
+    private volatile ExecutorService refreshExecutor;
+    private volatile long checkedTime = System.currentTimeMillis();
+    private volatile MessageHotKeyCache hotKeyCache;
+
+    /**
+     * The time to live of the loaded catalogs in milliseconds, before checking the version stamp of the catalog, never expire if negative
+     */
+    @Getter
+    @Setter
+    private long cacheMillis = -1L;
+
+    /**
+     * The interval in milliseconds before loading the catalog of a locale again in background, after it failed to load
+     */
+    @Getter
+    @Setter
+    private long retryMillis = DEFAULT_RETRY_MILLIS;
+
+    /**
+     * The maximum count of the requested locales, whose candidate locales in the catalog are cached
+     */
+    @Getter
+    @Setter
+    private int chainCacheSize = DEFAULT_CHAIN_CACHE_SIZE;
+
+    public CatalogResourceMessageSource(@Nonnull MessageCatalogProvider catalogProvider) {
+        this.catalogProvider = catalogProvider;
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nonnull ClassLoader classLoader) {
+        if (getParentMessageSource() instanceof BeanClassLoaderAware aware) {
+            aware.setBeanClassLoader(classLoader);
+        }
+    }
+
+    @Override
+    public void setResourceLoader(@Nonnull ResourceLoader resourceLoader) {
+        if (getParentMessageSource() instanceof ResourceLoaderAware aware) {
+            aware.setResourceLoader(resourceLoader);
+        }
+    }
+
+    @Override
+    public void addReloadListener(@Nonnull MessageReloadListener listener) {
+        reloadListeners.add(listener);
+        if (getParentMessageSource() instanceof MessageReloadObservable observable) {
+            observable.addReloadListener(listener);
+        }
+    }
+
+    @Override
+    public void setHotKeyCache(@Nullable MessageHotKeyCache hotKeyCache) {
+        this.hotKeyCache = hotKeyCache;
+    }
+
+    @Override
+    public void preloadBundles(@Nonnull Collection<Locale> locales, @Nullable Executor executor) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Locale locale : locales) {
+            futures.add(MessageResourcePreloader.runAsync(() -> getChain(locale).candidates().forEach(this::getSnapshot), executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        MessageSource parent = getParentMessageSource();
+        if (parent != null) {
+            MessageResourcePreloader.preloadBundles(parent, locales, executor);
+        }
+    }
+
+    @Override
+    public boolean isPreloaded(@Nonnull Locale locale) {
+        CompletableFuture<CatalogState> future = catalogState.get();
+        CatalogState state = (future == null) ? null : future.getNow(null);
+        if (state == null) {
+            return false;
+        }
+        for (Locale candidate : state.chains().get(locale).candidates()) {
+            CompletableFuture<CatalogSnapshot> snapshot = snapshots.get(candidate);
+            if (snapshot == null || !snapshot.isDone()) {
+                return false;
+            }
+        }
+        MessageSource parent = getParentMessageSource();
+        return parent == null || parent instanceof MessagePreloadable preloadable && preloadable.isPreloaded(locale);
+    }
+
+    /**
+     * Drops all the loaded catalogs, so that the next lookup of each locale loads the catalog again
+     */
+    public void clearCache() {
+        catalogState.set(null);
+        snapshots.clear();
+        checkedTime = System.currentTimeMillis();
+        MessageHotKeyCache cache = hotKeyCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The catalog of each locale is reported with the base name {@code catalog}, followed by the bundles of the parent message source
+     */
+    @Override
+    @Nonnull
+    public List<MessageBundleStats> getBundleStats() {
+        List<MessageBundleStats> result = new ArrayList<>();
+        snapshots.forEach((locale, future) -> {
+            CatalogSnapshot snapshot = future.getNow(null);
+            if (snapshot != null) {
+                result.add(new MessageBundleStats(CATALOG_BASENAME, locale, snapshot.messages().size(), MessageResourceSizeUtils.estimateStrings(snapshot.messages()), snapshot.loadedTime(), snapshot.loadNanos()));
+            }
+        });
+        if (getParentMessageSource() instanceof MessageBundleInspectable inspectable) {
+            result.addAll(inspectable.getBundleStats());
+        }
+        return result;
+    }
+
+    @Override
+    @Nonnull
+    public Map<String, MessageCacheStats> getCacheStats() {
+        Map<String, MessageCacheStats> result = new LinkedHashMap<>();
+        CompletableFuture<CatalogState> future = catalogState.get();
+        CatalogState state = (future == null) ? null : future.getNow(null);
+        if (state != null) {
+            result.put(CHAIN_CACHE, MessageCacheStats.of(state.chains()));
+        }
+        if (getParentMessageSource() instanceof MessageBundleInspectable inspectable) {
+            result.putAll(inspectable.getCacheStats());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The catalogs are dropped if the base name is {@code catalog} or {@code null}, and loaded again on next lookup,
+     * the other base names are evicted from the parent message source
+     */
+    @Override
+    public int evictBundles(@Nullable String baseName, @Nullable Locale locale) {
+        int result = 0;
+        if (baseName == null || CATALOG_BASENAME.equals(baseName)) {
+            if (locale == null) {
+                result += snapshots.size();
+                catalogState.set(null);
+                snapshots.clear();
+            } else if (snapshots.remove(locale) != null) {
+                result++;
+            }
+        }
+        if (!CATALOG_BASENAME.equals(baseName) && getParentMessageSource() instanceof MessageBundleInspectable inspectable) {
+            result += inspectable.evictBundles(baseName, locale);
+        }
+        MessageHotKeyCache cache = hotKeyCache;
+        if (result > 0 && cache != null) {
+            cache.invalidate();
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        ExecutorService executor = refreshExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (getParentMessageSource() instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+
+    @Override
+    @Nullable
+    protected String getMessageInternal(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale) {
+        MessageHotKeyCache cache = hotKeyCache;
+        return (cache == null) ? super.getMessageInternal(code, args, locale) : cache.getMessage(code, args, locale, super::getMessageInternal);
+    }
+
+    @Override
+    @Nullable
+    protected String resolveCodeWithoutArguments(@Nonnull String code, @Nonnull Locale locale) {
+        return findMessage(getChain(locale), code);
+    }
+
+    @Override
+    @Nullable
+    protected MessageFormat resolveCode(@Nonnull String code, @Nonnull Locale locale) {
+        CatalogChain chain = getChain(locale);
+        String message = findMessage(chain, code);
+        return (message == null) ? null : chain.formats().computeIfAbsent(message, key -> createMessageFormat(key, locale));
+    }
+
+    @Nullable
+    private String findMessage(@Nonnull CatalogChain chain, @Nonnull String code) {
+        for (Locale candidate : chain.candidates()) {
+            String result = getSnapshot(candidate).messages().get(code);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the candidate locales of the specified locale that the catalog has, loading the locales of the catalog in background at first time
+     */
+    @Nonnull
+    private CatalogChain getChain(@Nonnull Locale locale) {
+        CompletableFuture<CatalogState> future = catalogState.get();
+        if (future == null) {
+            CompletableFuture<CatalogState> loading = new CompletableFuture<>();
+            if (catalogState.compareAndSet(null, loading)) {
+                runLoad(loading, () -> loadStateSafely(null));
+            }
+            future = catalogState.get();
+        }
+        CatalogState state = (future == null) ? null : awaitLoad(future);
+        if (state == null) {
+            return new CatalogChain(Collections.emptyList(), new ConcurrentHashMap<>());
+        }
+        checkRefresh(state.failed(), state.loadedTime());
+        return state.chains().get(locale);
+    }
+
+    /**
+     * Returns the snapshot of a locale that the catalog has, the first load runs in background once, however many lookups wait for it
+     */
+    @Nonnull
+    private CatalogSnapshot getSnapshot(@Nonnull Locale locale) {
+        CompletableFuture<CatalogSnapshot> future = snapshots.get(locale);
+        if (future == null) {
+            CompletableFuture<CatalogSnapshot> loading = new CompletableFuture<>();
+            future = snapshots.putIfAbsent(locale, loading);
+            if (future == null) {
+                future = loading;
+                runLoad(loading, () -> loadSnapshotSafely(locale));
+            }
+        }
+        CatalogSnapshot result = awaitLoad(future);
+        checkRefresh(result.failed(), result.loadedTime());
+        return result;
+    }
+
+    /**
+     * Schedules a refresh in background if the time to live expires, or a failed load should be retried
+     */
+    private void checkRefresh(boolean failed, long loadedTime) {
+        long now = System.currentTimeMillis();
+        if ((failed && now - loadedTime > retryMillis) || (cacheMillis >= 0L && now - checkedTime > cacheMillis)) {
+            scheduleRefresh();
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            getRefreshExecutor().execute(() -> {
+                try {
+                    refreshSnapshots();
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to refresh message catalogs, keeping the former messages", ex);
+                } finally {
+                    checkedTime = System.currentTimeMillis();
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            refreshing.set(false);
+            throw ex;
+        }
+    }
+
+    /**
+     * Reloads the locales of the catalog and the loaded snapshots if the version stamp changed, and the failed ones,
+     * a failure of a locale keeps its former messages and never stops the other locales
+     */
+    private void refreshSnapshots() {
+        String version = catalogProvider.getVersion();
+        CompletableFuture<CatalogState> stateFuture = catalogState.get();
+        CatalogState former = (stateFuture == null) ? null : stateFuture.getNow(null);
+        CatalogState state = former;
+        if (former != null && (former.failed() || version == null || !Objects.equals(version, former.version()))) {
+            state = loadStateSafely(former);
+            if (state != former) {
+                catalogState.compareAndSet(stateFuture, CompletableFuture.completedFuture(state));
+            }
+        }
+        for (Map.Entry<Locale, CompletableFuture<CatalogSnapshot>> entry : snapshots.entrySet()) {
+            Locale locale = entry.getKey();
+            CatalogSnapshot snapshot = entry.getValue().getNow(null);
+            if (snapshot == null) {
+                continue;
+            }
+            if (state != null && !state.failed() && !state.locales().contains(locale)) {
+                snapshots.remove(locale, entry.getValue());
+                continue;
+            }
+            if (!snapshot.failed() && version != null && Objects.equals(version, snapshot.version())) {
+                continue;
+            }
+            long startTime = System.nanoTime();
+            try {
+                CatalogSnapshot loaded = loadSnapshot(locale, version);
+                if (snapshots.replace(locale, entry.getValue(), CompletableFuture.completedFuture(loaded))) {
+                    notifyReload(locale, startTime);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Failed to reload message catalog of locale " + locale + ", keeping the former messages", ex);
+                if (snapshot.failed()) {
+                    snapshots.replace(locale, entry.getValue(), CompletableFuture.completedFuture(failedSnapshot(startTime)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the locales of the catalog, or returns the former state if it did not fail, otherwise an empty state marked as failed
+     */
+    @Nonnull
+    private CatalogState loadStateSafely(@Nullable CatalogState former) {
+        try {
+            String version = catalogProvider.getVersion();
+            Set<Locale> locales = Set.copyOf(catalogProvider.getLocales());
+            MessageResolutionCache<Locale, CatalogChain> chains = new MessageResolutionCache<>(chainCacheSize, key -> new CatalogChain(getCandidateLocales(locales, key), new ConcurrentHashMap<>()));
+            return new CatalogState(locales, chains, version, System.currentTimeMillis(), false);
+        } catch (RuntimeException ex) {
+            if (former != null && !former.failed()) {
+                log.warn("Failed to load locales of message catalog, keeping the former locales", ex);
+                return former;
+            }
+            log.warn("Failed to load locales of message catalog, resolving from the parent message source until retrying", ex);
+            MessageResolutionCache<Locale, CatalogChain> chains = new MessageResolutionCache<>(0, key -> new CatalogChain(Collections.emptyList(), new ConcurrentHashMap<>()));
+            return new CatalogState(Collections.emptySet(), chains, null, System.currentTimeMillis(), true);
+        }
+    }
+
+    /**
+     * Loads the catalog of the specified locale, or returns an empty snapshot marked as failed if the provider fails
+     */
+    @Nonnull
+    private CatalogSnapshot loadSnapshotSafely(@Nonnull Locale locale) {
+        long startTime = System.nanoTime();
+        try {
+            CatalogSnapshot result = loadSnapshot(locale, catalogProvider.getVersion());
+            notifyReload(locale, startTime);
+            return result;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to load message catalog of locale " + locale + ", resolving from the parent message source until retrying", ex);
+            return failedSnapshot(startTime);
+        }
+    }
+
+    @Nonnull
+    private CatalogSnapshot loadSnapshot(@Nonnull Locale locale, @Nullable String version) {
+        long startTime = System.nanoTime();
+        Map<String, String> messages = Map.copyOf(catalogProvider.loadMessages(locale));
+        return new CatalogSnapshot(messages, version, System.currentTimeMillis(), System.nanoTime() - startTime, false);
+    }
+
+    @Nonnull
+    private static CatalogSnapshot failedSnapshot(long startTime) {
+        return new CatalogSnapshot(Collections.emptyMap(), null, System.currentTimeMillis(), System.nanoTime() - startTime, true);
+    }
+
+    /**
+     * Returns the candidate locales of the specified locale that the catalog has, in the order of precedence
+     */
+    @Nonnull
+    private static List<Locale> getCandidateLocales(@Nonnull Set<Locale> available, @Nonnull Locale locale) {
+        return BUNDLE_CONTROL.getCandidateLocales(CATALOG_RESOURCE, locale).stream().filter(available::contains).toList();
+    }
+
+    private void notifyReload(@Nonnull Locale locale, long startTime) {
+        long elapsed = System.nanoTime() - startTime;
+        reloadListeners.forEach(listener -> listener.onReload(CATALOG_RESOURCE + locale, elapsed));
+    }
+
+    /**
+     * Completes the specified future in the refresh thread, or in the calling thread if the refresh thread is shut down
+     */
+    private <T> void runLoad(@Nonnull CompletableFuture<T> future, @Nonnull Supplier<T> loader) {
+        try {
+            getRefreshExecutor().execute(() -> future.complete(loader.get()));
+        } catch (RuntimeException ex) {
+            future.complete(loader.get());
+        }
+    }
+
+    @Nonnull
+    private <T> T awaitLoad(@Nonnull CompletableFuture<T> future) {
+        T result = future.getNow(null);
+        return (result != null) ? result : future.join();
+    }
+
+    @Nonnull
+    private Executor getRefreshExecutor() {
+        if (refreshExecutor == null) {
+            synchronized (executorMonitor) {
+                if (refreshExecutor == null) {
+                    CustomizableThreadFactory factory = new CustomizableThreadFactory(THREAD_PREFIX);
+                    factory.setDaemon(true);
+                    refreshExecutor = Executors.newSingleThreadExecutor(factory);
+                }
+            }
+        }
+        return refreshExecutor;
+    }
+
+
+    /**
+     * Locales of the catalog, with the cached candidate locales of the requested locales, the version stamp when loading, and whether the loading failed
+     */
+    private record CatalogState(@Nonnull Set<Locale> locales, @Nonnull MessageResolutionCache<Locale, CatalogChain> chains, @Nullable String version, long loadedTime, boolean failed) {
+    }
+
+
+    /**
+     * Candidate locales of a requested locale that the catalog has, with the formats of their messages for the requested locale, keyed by the message
+     */
+    private record CatalogChain(@Nonnull List<Locale> candidates, @Nonnull ConcurrentMap<String, MessageFormat> formats) {
+    }
+
+
+    /**
+     * Loaded messages of a locale, the version stamp of the catalog when loading, the elapsed time of loading, and whether the loading failed
+     */
+    private record CatalogSnapshot(@Nonnull Map<String, String> messages, @Nullable String version, long loadedTime, long loadNanos, boolean failed) {
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.catalog;
+
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link com.yookue.springstarter.messageresource.catalog.MessageCatalogProvider} that loads the messages from a database table
+ * <p>
+ * Each row of the table holds a code, a locale (such as {@code zh_CN}, empty for the default messages), a message and an optional version stamp.
+ * The version stamp of the catalog is the maximum of the version column, so bump the version of a row when updating it
+ *
+ * @author David Hsing
+ */
+@Getter
+@Setter
+@SuppressWarnings("unused")
+public class JdbcMessageCatalogProvider implements MessageCatalogProvider {
+    public static final String DEFAULT_TABLE = "message_catalog";    // $NON-NLS-1$
+    public static final String DEFAULT_CODE_COLUMN = "code";    // $NON-NLS-1$
+    public static final String DEFAULT_LOCALE_COLUMN = "locale";    // $NON-NLS-1$
+    public static final String DEFAULT_MESSAGE_COLUMN = "message";    // $NON-NLS-1$
+    public static final String DEFAULT_VERSION_COLUMN = "version";    // $NON-NLS-1$
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_$.]*");    // $NON-NLS-1$
+
+    private final DataSource dataSource;
+    private String tableName = DEFAULT_TABLE;
+    private String codeColumn = DEFAULT_CODE_COLUMN;
+    private String localeColumn = DEFAULT_LOCALE_COLUMN;
+    private String messageColumn = DEFAULT_MESSAGE_COLUMN;
+
+    /**
+     * The column of the version stamps, no version stamp if blank
+     */
+    private String versionColumn = DEFAULT_VERSION_COLUMN;
+
+    public JdbcMessageCatalogProvider(@Nonnull DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    @Nonnull
+    public Map<String, String> loadMessages(@Nonnull Locale locale) {
+        String sql = "SELECT " + checkIdentifier(codeColumn) + ", " + checkIdentifier(messageColumn) + " FROM " + checkIdentifier(tableName) + " WHERE " + checkIdentifier(localeColumn) + " = ?";    // $NON-NLS-1$
+        Map<String, String> result = new HashMap<>();
+        try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, locale.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String code = resultSet.getString(1);
+                    String message = resultSet.getString(2);
+                    if (code != null && message != null) {
+                        result.put(code, message);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load message catalog of locale '" + locale + "' from table " + tableName, ex);
+        }
+        return result;
+    }
+
+    @Override
+    @Nonnull
+    public Set<Locale> getLocales() {
+        String sql = "SELECT DISTINCT " + checkIdentifier(localeColumn) + " FROM " + checkIdentifier(tableName);    // $NON-NLS-1$
+        Set<Locale> result = new HashSet<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                String locale = resultSet.getString(1);
+                if (locale != null) {
+                    Locale parsed = StringUtils.isBlank(locale) ? Locale.ROOT : org.springframework.util.StringUtils.parseLocale(locale.trim());
+                    result.add(parsed == null ? Locale.ROOT : parsed);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to query message catalog locales from table " + tableName, ex);
+        }
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public String getVersion() {
+        if (StringUtils.isBlank(versionColumn)) {
+            return null;
+        }
+        String sql = "SELECT MAX(" + checkIdentifier(versionColumn) + ") FROM " + checkIdentifier(tableName);    // $NON-NLS-1$
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to query message catalog version from table " + tableName, ex);
+        }
+    }
+
+    @Nonnull
+    private static String checkIdentifier(@Nullable String identifier) {
+        if (identifier == null || !IDENTIFIER_PATTERN.matcher(identifier).matches()) {
+            throw new IllegalArgumentException("Invalid message catalog identifier: " + identifier);
+        }
+        return identifier;
+    }
+}
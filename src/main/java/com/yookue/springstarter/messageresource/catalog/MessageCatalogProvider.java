@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.catalog;
+
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Provider of external message catalogs, such as a database, that could be updated without redeploying
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.catalog.CatalogResourceMessageSource
+ */
+public interface MessageCatalogProvider {
+    /**
+     * Returns all the messages of the specified locale, without any fallback locales
+     *
+     * @param locale the locale of the messages, {@link java.util.Locale#ROOT} for the default messages
+     *
+     * @return all the messages of the specified locale, keyed by code
+     */
+    @Nonnull
+    Map<String, String> loadMessages(@Nonnull Locale locale);
+
+    /**
+     * Returns the locales that the catalog has messages of, only these locales are loaded, whatever locales are requested
+     *
+     * @return the locales that the catalog has messages of, {@link java.util.Locale#ROOT} for the default messages
+     */
+    @Nonnull
+    Set<Locale> getLocales();
+
+    /**
+     * Returns the version stamp of the whole catalog, which changes whenever any message changes
+     *
+     * @return the version stamp of the whole catalog, or {@code null} if not supported, then the catalogs are reloaded whenever their time to live expires
+     */
+    @Nullable
+    default String getVersion() {
+        return null;
+    }
+}
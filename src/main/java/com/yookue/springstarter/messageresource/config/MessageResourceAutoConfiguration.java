@@ -17,13 +17,26 @@
 package com.yookue.springstarter.messageresource.config;
 
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -35,10 +48,9 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.AbstractResourceBasedMessageSource;
-import org.springframework.context.support.ReloadableResourceBundleMessageSource;
-import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
 import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
@@ -47,9 +59,23 @@ import com.yookue.commonplexus.javaseutil.util.StringUtilsWraps;
 import com.yookue.commonplexus.springutil.constant.SpringPropertyConst;
 import com.yookue.commonplexus.springutil.processor.MessageSourceAccessorProcessor;
 import com.yookue.commonplexus.springutil.util.ResourceUtilsWraps;
+import com.yookue.springstarter.messageresource.catalog.CatalogResourceMessageSource;
+import com.yookue.springstarter.messageresource.catalog.MessageCatalogProvider;
+import com.yookue.springstarter.messageresource.enumeration.MessageEngineType;
+import com.yookue.springstarter.messageresource.processor.MessageResourceAccessorCandidateProcessor;
+import com.yookue.springstarter.messageresource.processor.MessageResourceAccessorProcessor;
 import com.yookue.springstarter.messageresource.processor.MessageResourcePriorityProcessor;
 import com.yookue.springstarter.messageresource.property.MessageResourceProperties;
+import com.yookue.springstarter.messageresource.support.CompiledResourceMessageSource;
+import com.yookue.springstarter.messageresource.support.FilteredResourceMessageSource;
+import com.yookue.springstarter.messageresource.support.MessageHotKeyAware;
+import com.yookue.springstarter.messageresource.support.MessageHotKeyCache;
+import com.yookue.springstarter.messageresource.support.MessageReloadObservable;
+import com.yookue.springstarter.messageresource.support.MessageResourcePreloader;
+import com.yookue.springstarter.messageresource.support.ReloadableResourceMessageSource;
 import com.yookue.springstarter.messageresource.util.MessageResourceDetectorUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceScanCacheUtils;
 
 
 /**
@@ -66,22 +92,65 @@ import com.yookue.springstarter.messageresource.util.MessageResourceDetectorUtil
 public class MessageResourceAutoConfiguration {
     public static final String PROPERTIES_PREFIX = "spring.message-resource";    // $NON-NLS-1$
     public static final String MESSAGE_SOURCE = "detectiveResourceMessageSource";    // $NON-NLS-1$
+    public static final String ACCESSOR_PROCESSOR = "messageSourceAccessorProcessor";    // $NON-NLS-1$
 
     @Bean(name = MESSAGE_SOURCE)
     @ConditionalOnMissingBean(name = MESSAGE_SOURCE)
-    public MessageSource messageSource(@Nonnull Environment environment, @Nonnull MessageResourceProperties properties) {
+    public MessageSource messageSource(@Nonnull BeanFactory beanFactory, @Nonnull Environment environment, @Nonnull MessageResourceProperties properties, @Nonnull ObjectProvider<MessageCatalogProvider> catalogProviders, @Nonnull ObjectProvider<MessageHotKeyCache> hotKeyCaches) {
         Set<String> existsNames = null;
         Set<String> configNames = StringUtilsWraps.splitByToSet(environment.getProperty(SpringPropertyConst.MESSAGES_BASENAME), CharVariantConst.COMMA, true);
         if (!CollectionUtils.isEmpty(configNames)) {
             existsNames = configNames.stream().filter(StringUtils::isNotBlank).map(element -> element.replace(CharVariantConst.DOT, CharVariantConst.SLASH)).filter(ResourceUtilsWraps::existsClassPathResource).collect(Collectors.toSet());
         }
         MessageResourceProperties.MessageBundle props = properties.getMessageBundle();
-        Set<String> bundleNames = MessageResourceDetectorUtils.detectBaseNames(BooleanUtils.isTrue(props.getAddInternalBundles()), BooleanUtils.isTrue(props.getScanRecursive()), props.getScanResources());
+        Set<String> bundleNames = BooleanUtils.isTrue(props.getAddInternalBundles()) ? MessageResourceDetectorUtils.detectInternalBaseNames() : new LinkedHashSet<>();
+        Map<String, Set<Locale>> bundleLocales = detectBundleLocales(props, AutoConfigurationPackages.has(beanFactory) ? AutoConfigurationPackages.get(beanFactory) : null);
+        if (!CollectionUtils.isEmpty(bundleLocales)) {
+            bundleNames.addAll(bundleLocales.keySet());
+        }
         Set<String> unionNames = CollectionPlainWraps.newLinkedHashSetWithinAll(existsNames, bundleNames);
+        MessageCatalogProvider catalogProvider = BooleanUtils.isTrue(properties.getCatalog().getEnabled()) ? catalogProviders.getIfAvailable() : null;
+        if (catalogProvider != null) {
+            CatalogResourceMessageSource result = new CatalogResourceMessageSource(catalogProvider);
+            DurationUtilsWraps.ifPositive(properties.getCatalog().getTimeToLive(), element -> result.setCacheMillis(element.toMillis()));
+            result.setAlwaysUseMessageFormat(BooleanUtils.isTrue(props.getAlwaysUseMessageFormat()));
+            result.setUseCodeAsDefaultMessage(BooleanUtils.isTrue(props.getUseCodeAsDefaultMessage()));
+            if (!CollectionUtils.isEmpty(unionNames)) {
+                result.setParentMessageSource(createBundleMessageSource(properties, bundleLocales, unionNames));
+            }
+            return applyHotKeyCache(result, hotKeyCaches.getIfAvailable());
+        }
         if (CollectionUtils.isEmpty(unionNames)) {
             return null;
         }
-        AbstractResourceBasedMessageSource result = BooleanUtils.isTrue(props.getReloadable()) ?  new ReloadableResourceBundleMessageSource() : new ResourceBundleMessageSource();
+        return applyHotKeyCache(createBundleMessageSource(properties, bundleLocales, unionNames), hotKeyCaches.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX + ".hot-key", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean
+    public MessageHotKeyCache messageHotKeyCache(@Nonnull MessageResourceProperties properties) {
+        MessageResourceProperties.HotKey props = properties.getHotKey();
+        Duration cacheDuration = properties.getMessageBundle().getCacheDuration();
+        long expireMillis = (cacheDuration != null && !cacheDuration.isNegative() && !cacheDuration.isZero()) ? cacheDuration.toMillis() : -1L;
+        return new MessageHotKeyCache(ObjectUtils.defaultIfNull(props.getCapacity(), MessageHotKeyCache.DEFAULT_CAPACITY), ObjectUtils.defaultIfNull(props.getSampleRate(), MessageHotKeyCache.DEFAULT_SAMPLE_RATE), expireMillis);
+    }
+
+    @Nonnull
+    private MessageSource applyHotKeyCache(@Nonnull MessageSource source, @Nullable MessageHotKeyCache hotKeyCache) {
+        if (hotKeyCache != null && source instanceof MessageHotKeyAware aware) {
+            aware.setHotKeyCache(hotKeyCache);
+            if (source instanceof MessageReloadObservable observable) {
+                observable.addReloadListener((resource, nanos) -> hotKeyCache.invalidate());
+            }
+        }
+        return source;
+    }
+
+    @Nonnull
+    private AbstractResourceBasedMessageSource createBundleMessageSource(@Nonnull MessageResourceProperties properties, @Nullable Map<String, Set<Locale>> bundleLocales, @Nonnull Set<String> unionNames) {
+        MessageResourceProperties.MessageBundle props = properties.getMessageBundle();
+        AbstractResourceBasedMessageSource result = createMessageSource(props, bundleLocales);
         result.setBasenames(unionNames.toArray(ArrayUtils.EMPTY_STRING_ARRAY));
         Optional.ofNullable(props.getDefaultEncoding()).ifPresent(element -> result.setDefaultEncoding(element.name()));
         Optional.ofNullable(properties.getDefaultLocale()).ifPresent(result::setDefaultLocale);
@@ -92,6 +161,60 @@ public class MessageResourceAutoConfiguration {
         return result;
     }
 
+    @Nonnull
+    private AbstractResourceBasedMessageSource createMessageSource(@Nonnull MessageResourceProperties.MessageBundle props, @Nullable Map<String, Set<Locale>> bundleLocales) {
+        if (props.getEngine() == MessageEngineType.COMPILED) {
+            CompiledResourceMessageSource result = new CompiledResourceMessageSource();
+            result.setBundleLocales(bundleLocales);
+            result.setWatchResources(BooleanUtils.isTrue(props.getReloadable()));
+            Optional.ofNullable(props.getFormatCacheSize()).ifPresent(result::setFormatCacheSize);
+            Optional.ofNullable(props.getStorage()).ifPresent(result::setStorageType);
+            result.setUseBinary(BooleanUtils.isTrue(props.getUseBinary()));
+            Optional.ofNullable(props.getResolutionCacheSize()).ifPresent(result::setResolutionCacheSize);
+            Optional.ofNullable(props.getCodeFilterProbability()).ifPresent(result::setCodeFilterProbability);
+            return result;
+        }
+        if (BooleanUtils.isTrue(props.getReloadable())) {
+            ReloadableResourceMessageSource result = new ReloadableResourceMessageSource();
+            Optional.ofNullable(props.getResolutionCacheSize()).ifPresent(result::setResolutionCacheSize);
+            Optional.ofNullable(props.getCodeFilterProbability()).ifPresent(result::setCodeFilterProbability);
+            return result;
+        }
+        FilteredResourceMessageSource result = new FilteredResourceMessageSource();
+        Optional.ofNullable(props.getCodeFilterProbability()).ifPresent(result::setCodeFilterProbability);
+        return result;
+    }
+
+    @Nullable
+    private Map<String, Set<Locale>> detectBundleLocales(@Nonnull MessageResourceProperties.MessageBundle props, @Nullable List<String> trustedPackages) {
+        if (AotDetector.useGeneratedArtifacts()) {
+            Map<String, Set<Locale>> indexes = MessageResourceIndexUtils.readIndex(ClassUtils.getDefaultClassLoader(), MessageResourceIndexUtils.AOT_INDEX_LOCATION);
+            if (indexes != null) {
+                return indexes;
+            }
+        }
+        boolean scanRecursive = BooleanUtils.isTrue(props.getScanRecursive());
+        if (BooleanUtils.isTrue(props.getUseIndex())) {
+            Map<String, Set<Locale>> indexes = MessageResourceIndexUtils.loadIndex(ClassUtils.getDefaultClassLoader(), scanRecursive, props.getScanResources(), trustedPackages);
+            if (indexes != null) {
+                return indexes;
+            }
+        }
+        Path cacheDirectory = StringUtils.isBlank(props.getScanCacheDirectory()) ? null : Paths.get(props.getScanCacheDirectory());
+        return MessageResourceScanCacheUtils.detectBundleLocales(cacheDirectory, scanRecursive, props.getScanResources(), ObjectUtils.defaultIfNull(props.getScanThreads(), 0));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX + ".message-bundle", name = "eager-load", havingValue = "true")
+    @ConditionalOnMissingBean
+    public MessageResourcePreloader messageResourcePreloader(@Nonnull BeanFactory beanFactory, @Nonnull MessageResourceProperties properties) {
+        MessageResourcePreloader result = new MessageResourcePreloader(beanFactory);
+        MessageResourceProperties.MessageBundle props = properties.getMessageBundle();
+        result.setLocales(!CollectionUtils.isEmpty(props.getEagerLocales()) ? props.getEagerLocales() : Optional.ofNullable(properties.getDefaultLocale()).map(List::of).orElse(null));
+        Optional.ofNullable(props.getEagerThreads()).ifPresent(result::setThreads);
+        return result;
+    }
+
     @Bean
     @ConditionalOnProperty(prefix = PROPERTIES_PREFIX + ".message-resource", name = "primary-message-resource", havingValue = "true", matchIfMissing = true)
     @ConditionalOnMissingBean
@@ -101,12 +224,19 @@ public class MessageResourceAutoConfiguration {
         return result;
     }
 
-    @Bean
+    @Bean(name = ACCESSOR_PROCESSOR)
     @ConditionalOnProperty(prefix = PROPERTIES_PREFIX + ".accessor-aware", name = "enabled", havingValue = "true", matchIfMissing = true)
     @ConditionalOnMissingBean
     public MessageSourceAccessorProcessor messageSourceAccessorProcessor(@Nonnull ConfigurableApplicationContext context, @Nonnull MessageResourceProperties properties) {
-        MessageSourceAccessorProcessor result = new MessageSourceAccessorProcessor(context, properties.getDefaultLocale());
+        MessageResourceAccessorProcessor result = new MessageResourceAccessorProcessor(context, properties.getDefaultLocale());
         Optional.ofNullable(properties.getAccessorAware().getProcessorOrder()).ifPresent(result::setOrder);
         return result;
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX + ".accessor-aware", name = {"enabled", "detect-candidates"}, havingValue = "true")
+    @ConditionalOnMissingBean
+    public static MessageResourceAccessorCandidateProcessor accessorCandidateProcessor() {
+        return new MessageResourceAccessorCandidateProcessor(ACCESSOR_PROCESSOR);
+    }
 }
@@ -33,6 +33,7 @@ import org.springframework.context.annotation.Lazy;
 import com.yookue.commonplexus.springutil.message.BeanValidationMessenger;
 import com.yookue.commonplexus.springutil.message.FormValidationMessenger;
 import com.yookue.commonplexus.springutil.message.RestResponseMessenger;
+import com.yookue.springstarter.messageresource.processor.MessageResourceLazyInitProcessor;
 
 
 /**
@@ -44,7 +45,11 @@ import com.yookue.commonplexus.springutil.message.RestResponseMessenger;
 @ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
 @AutoConfigureAfter(value = {MessageSourceAutoConfiguration.class, ValidationAutoConfiguration.class, MessageSourceAutoConfiguration.class})
 public class MessageResourceBeanConfiguration {
-    @Bean
+    public static final String BEAN_VALIDATION_MESSENGER = "beanValidationMessenger";    // $NON-NLS-1$
+    public static final String FORM_VALIDATION_MESSENGER = "formValidationMessenger";    // $NON-NLS-1$
+    public static final String REST_RESPONSE_MESSENGER = "restResponseMessenger";    // $NON-NLS-1$
+
+    @Bean(name = BEAN_VALIDATION_MESSENGER)
     @ConditionalOnClass(value = Validator.class)
     @ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX + ".extra-messenger", name = "bean-validation", havingValue = "true", matchIfMissing = true)
     @ConditionalOnMissingBean
@@ -52,17 +57,24 @@ public class MessageResourceBeanConfiguration {
         return new BeanValidationMessenger(source, validator);
     }
 
-    @Bean
+    @Bean(name = FORM_VALIDATION_MESSENGER)
     @ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX + ".extra-messenger", name = "form-validation", havingValue = "true", matchIfMissing = true)
     @ConditionalOnMissingBean
     public FormValidationMessenger formValidationMessenger(@Nonnull @Qualifier(value = MessageResourceAutoConfiguration.MESSAGE_SOURCE) MessageSource source) {
         return new FormValidationMessenger(source);
     }
 
-    @Bean
+    @Bean(name = REST_RESPONSE_MESSENGER)
     @ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX + ".extra-messenger", name = "rest-response", havingValue = "true", matchIfMissing = true)
     @ConditionalOnMissingBean
     public RestResponseMessenger restResponseMessenger(@Nonnull @Qualifier(value = MessageResourceAutoConfiguration.MESSAGE_SOURCE) MessageSource source, @Nonnull @Lazy Validator validator) {
         return new RestResponseMessenger(source, validator);
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX + ".extra-messenger", name = "lazy-init", havingValue = "true")
+    @ConditionalOnMissingBean
+    public static MessageResourceLazyInitProcessor messengerLazyInitProcessor() {
+        return new MessageResourceLazyInitProcessor(BEAN_VALIDATION_MESSENGER, FORM_VALIDATION_MESSENGER, REST_RESPONSE_MESSENGER);
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.config;
+
+
+import javax.sql.DataSource;
+import jakarta.annotation.Nonnull;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.yookue.springstarter.messageresource.catalog.JdbcMessageCatalogProvider;
+import com.yookue.springstarter.messageresource.catalog.MessageCatalogProvider;
+import com.yookue.springstarter.messageresource.property.MessageResourceProperties;
+
+
+/**
+ * Configuration for external message catalog
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.catalog.CatalogResourceMessageSource
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter(name = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")
+public class MessageResourceCatalogConfiguration {
+    @Bean
+    @ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX + ".catalog", name = "enabled", havingValue = "true")
+    @ConditionalOnBean(value = DataSource.class)
+    @ConditionalOnMissingBean(value = MessageCatalogProvider.class)
+    public JdbcMessageCatalogProvider jdbcMessageCatalogProvider(@Nonnull DataSource dataSource, @Nonnull MessageResourceProperties properties) {
+        MessageResourceProperties.Catalog props = properties.getCatalog();
+        JdbcMessageCatalogProvider result = new JdbcMessageCatalogProvider(dataSource);
+        result.setTableName(props.getTableName());
+        result.setCodeColumn(props.getCodeColumn());
+        result.setLocaleColumn(props.getLocaleColumn());
+        result.setMessageColumn(props.getMessageColumn());
+        result.setVersionColumn(props.getVersionColumn());
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.config;
+
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.CollectionUtils;
+import com.yookue.springstarter.messageresource.processor.MessageResourceMetricsProcessor;
+import com.yookue.springstarter.messageresource.property.MessageResourceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+
+
+/**
+ * Configuration for message resource metrics
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.metrics.MeteredMessageSource
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnClass(value = MeterRegistry.class)
+@AutoConfigureAfter(value = MessageResourceAutoConfiguration.class)
+public class MessageResourceMetricsConfiguration {
+    @Bean
+    @ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX + ".metrics", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean
+    public static MessageResourceMetricsProcessor messageResourceMetricsProcessor(@Nonnull Environment environment, @Nonnull ObjectProvider<MeterRegistry> registryProvider) {
+        MessageResourceProperties properties = Binder.get(environment).bind(MessageResourceAutoConfiguration.PROPERTIES_PREFIX, MessageResourceProperties.class).orElseGet(MessageResourceProperties::new);
+        MessageResourceMetricsProcessor result = new MessageResourceMetricsProcessor(registryProvider);
+        result.setTagLocales(resolveTagLocales(properties));
+        return result;
+    }
+
+    /**
+     * Binds the properties with {@link org.springframework.boot.context.properties.bind.Binder}, as the post processor is created before the properties bean
+     */
+    @Nonnull
+    private static Set<Locale> resolveTagLocales(@Nonnull MessageResourceProperties properties) {
+        Set<Locale> result = new LinkedHashSet<>();
+        if (!CollectionUtils.isEmpty(properties.getMetrics().getLocales())) {
+            result.addAll(properties.getMetrics().getLocales());
+            return result;
+        }
+        if (!CollectionUtils.isEmpty(properties.getMessageBundle().getEagerLocales())) {
+            result.addAll(properties.getMessageBundle().getEagerLocales());
+        }
+        if (properties.getDefaultLocale() != null) {
+            result.add(properties.getDefaultLocale());
+        }
+        if (result.isEmpty()) {
+            result.add(Locale.getDefault());
+        }
+        return result;
+    }
+}
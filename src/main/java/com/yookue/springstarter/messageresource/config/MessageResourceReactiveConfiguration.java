@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.config;
+
+
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.yookue.springstarter.messageresource.reactive.ReactiveMessageSource;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Configuration for reactive message resource
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.reactive.ReactiveMessageSource
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnClass(value = Mono.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AutoConfigureAfter(value = MessageResourceAutoConfiguration.class)
+public class MessageResourceReactiveConfiguration {
+    public static final String REACTIVE_MESSAGE_SOURCE = "reactiveResourceMessageSource";    // $NON-NLS-1$
+
+    @Bean(name = REACTIVE_MESSAGE_SOURCE)
+    @ConditionalOnProperty(prefix = MessageResourceAutoConfiguration.PROPERTIES_PREFIX + ".reactive", name = "enabled", havingValue = "true", matchIfMissing = true)
+    @ConditionalOnBean(name = MessageResourceAutoConfiguration.MESSAGE_SOURCE)
+    @ConditionalOnMissingBean
+    public ReactiveMessageSource reactiveMessageSource(@Nonnull @Qualifier(value = MessageResourceAutoConfiguration.MESSAGE_SOURCE) MessageSource messageSource) {
+        return new ReactiveMessageSource(messageSource);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.endpoint;
+
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.MessageSource;
+import org.springframework.lang.Nullable;
+import com.yookue.springstarter.messageresource.support.MessageBundleInspectable;
+import com.yookue.springstarter.messageresource.support.MessageBundleStats;
+import com.yookue.springstarter.messageresource.support.MessageCacheStats;
+import com.yookue.springstarter.messageresource.support.MessageHotKeyCache;
+import com.yookue.springstarter.messageresource.support.MessageResourcePreloader;
+
+
+/**
+ * {@link org.springframework.boot.actuate.endpoint.annotation.Endpoint} for exposing the message resources
+ * <p>
+ * The read operation describes the loaded bundles, the caches and the pinned codes.
+ * The delete operation evicts the bundles of a base name or locale, the write operation reloads them as well, or the locales that were loaded if no locale.
+ * The locale {@code root} means the default files, no locale means all the locales.
+ * If the message source could not evict bundles, the operations are rejected as invalid requests
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessageBundleInspectable
+ */
+@Endpoint(id = MessageResourceEndpoint.ENDPOINT_ID)
+@SuppressWarnings("unused")
+public class MessageResourceEndpoint {
+    public static final String ENDPOINT_ID = "messageresources";    // $NON-NLS-1$
+    private static final String ROOT_LOCALE = "root";    // $NON-NLS-1$
+
+    private final MessageSource messageSource;
+    private final MessageHotKeyCache hotKeyCache;
+
+    public MessageResourceEndpoint(@Nonnull MessageSource messageSource, @Nullable MessageHotKeyCache hotKeyCache) {
+        this.messageSource = messageSource;
+        this.hotKeyCache = hotKeyCache;
+    }
+
+    @ReadOperation
+    public MessageResourcesDescriptor messageResources() {
+        List<MessageBundleStats> bundles = (messageSource instanceof MessageBundleInspectable inspectable) ? inspectable.getBundleStats() : Collections.emptyList();
+        Map<String, MessageCacheStats> caches = (messageSource instanceof MessageBundleInspectable inspectable) ? inspectable.getCacheStats() : Collections.emptyMap();
+        List<MessageHotKeyCache.HotKeyStats> hotKeys = (hotKeyCache == null) ? Collections.emptyList() : hotKeyCache.getHotKeys();
+        Set<String> baseNames = new TreeSet<>();
+        bundles.forEach(bundle -> baseNames.add(bundle.baseName()));
+        long estimatedBytes = bundles.stream().mapToLong(MessageBundleStats::estimatedBytes).sum();
+        return new MessageResourcesDescriptor(messageSource.getClass().getName(), baseNames, estimatedBytes, bundles, caches, hotKeys);
+    }
+
+    @DeleteOperation
+    public MessageEvictionDescriptor evictBundles(@Nullable String baseName, @Nullable String locale) {
+        return new MessageEvictionDescriptor(evict(baseName, parseLocale(locale)));
+    }
+
+    /**
+     * Evicts the bundles of the base name and locale, and loads them again
+     * <p>
+     * Without a locale, the locales of the matching bundles that were loaded before the eviction are loaded again
+     */
+    @WriteOperation
+    public MessageEvictionDescriptor reloadBundles(@Nullable String baseName, @Nullable String locale) {
+        Locale targetLocale = parseLocale(locale);
+        Set<Locale> reloadLocales = new LinkedHashSet<>();
+        if (targetLocale != null) {
+            reloadLocales.add(targetLocale);
+        } else if (messageSource instanceof MessageBundleInspectable inspectable) {
+            String targetName = StringUtils.trimToNull(baseName);
+            inspectable.getBundleStats().stream().filter(bundle -> targetName == null || targetName.equals(bundle.baseName())).forEach(bundle -> reloadLocales.add(bundle.locale()));
+        }
+        int result = evict(baseName, targetLocale);
+        if (!reloadLocales.isEmpty()) {
+            MessageResourcePreloader.preloadBundles(messageSource, reloadLocales, null);
+        }
+        return new MessageEvictionDescriptor(result);
+    }
+
+    private int evict(@Nullable String baseName, @Nullable Locale locale) {
+        if (!(messageSource instanceof MessageBundleInspectable inspectable)) {
+            String reason = "Message source " + messageSource.getClass().getName() + " does not support evicting bundles";
+            throw new InvalidEndpointRequestException(reason, reason);
+        }
+        int result;
+        try {
+            result = inspectable.evictBundles(StringUtils.trimToNull(baseName), locale);
+        } catch (UnsupportedOperationException ex) {
+            throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage(), ex);
+        }
+        if (result > 0 && hotKeyCache != null) {
+            hotKeyCache.invalidate();
+        }
+        return result;
+    }
+
+    @Nullable
+    private Locale parseLocale(@Nullable String locale) {
+        if (StringUtils.isBlank(locale)) {
+            return null;
+        }
+        return StringUtils.equalsIgnoreCase(locale, ROOT_LOCALE) ? Locale.ROOT : org.springframework.util.StringUtils.parseLocale(locale.trim());
+    }
+
+
+    /**
+     * Descriptor of the message resources
+     *
+     * @param messageSource the class name of the message source
+     * @param baseNames the base names of the loaded bundles
+     * @param estimatedBytes the estimated heap size of all the loaded bundles
+     * @param bundles the statistics of each loaded bundle file
+     * @param caches the statistics of the caches, keyed by the cache name
+     * @param hotKeys the pinned codes and locales, in the descending order of the estimated frequencies
+     */
+    public record MessageResourcesDescriptor(@Nonnull String messageSource, @Nonnull Set<String> baseNames, long estimatedBytes, @Nonnull List<MessageBundleStats> bundles, @Nonnull Map<String, MessageCacheStats> caches, @Nonnull List<MessageHotKeyCache.HotKeyStats> hotKeys) {
+    }
+
+
+    /**
+     * Descriptor of an eviction
+     *
+     * @param evictedBundles the count of the evicted bundle files
+     */
+    public record MessageEvictionDescriptor(int evictedBundles) {
+    }
+}
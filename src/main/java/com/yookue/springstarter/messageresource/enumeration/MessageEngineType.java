@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.enumeration;
+
+
+/**
+ * Enumerations of message source engine types
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+public enum MessageEngineType {
+    /**
+     * Spring resource bundle message source
+     *
+     * @see org.springframework.context.support.ResourceBundleMessageSource
+     * @see org.springframework.context.support.ReloadableResourceBundleMessageSource
+     */
+    STANDARD,
+
+    /**
+     * Precompiled, lock-free message source
+     *
+     * @see com.yookue.springstarter.messageresource.support.CompiledResourceMessageSource
+     */
+    COMPILED
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.enumeration;
+
+
+/**
+ * Enumerations of message storage types of the compiled message source
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.CompiledResourceMessageSource
+ */
+@SuppressWarnings("unused")
+public enum MessageStorageType {
+    /**
+     * A hash table for each bundle file and each requested locale
+     */
+    STANDARD,
+
+    /**
+     * A key dictionary shared by all the locales of a base name, with the values of each bundle file in an array
+     *
+     * @see com.yookue.springstarter.messageresource.support.CompactMessageTable
+     */
+    COMPACT,
+
+    /**
+     * Same as {@code compact}, with the values of each bundle file packed into a Latin-1 or UTF-8 byte array
+     * <p>
+     * Saves the object headers of each value, at the cost of decoding the value on each lookup
+     */
+    PACKED
+}
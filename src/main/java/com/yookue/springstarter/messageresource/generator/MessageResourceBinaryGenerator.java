@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.generator;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.ClassUtils;
+import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
+import com.yookue.springstarter.messageresource.util.MessageResourceBinaryUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceDetectorUtils;
+
+
+/**
+ * Generator for compiling the message bundle files into binary files at build time
+ * <p>
+ * Usage: {@code MessageResourceBinaryGenerator <output-directory> [--non-recursive] [--encoding=<charset>] [scan-resource ...]}
+ * <p>
+ * The scan resources default to {@code lang}, the encoding defaults to {@code UTF-8},
+ * each bundle file {@code <bundle-name>.properties} will be compiled to {@code <output-directory>/<bundle-name>.mrb}
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.util.MessageResourceBinaryUtils
+ */
+@SuppressWarnings("unused")
+public abstract class MessageResourceBinaryGenerator {
+    private static final ResourceBundle.Control BUNDLE_CONTROL = ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+    private static final String NON_RECURSIVE = "--non-recursive";    // $NON-NLS-1$
+    private static final String ENCODING_PREFIX = "--encoding=";    // $NON-NLS-1$
+    private static final String FILE_EXTENSION = "." + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
+
+    public static void main(@Nonnull String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: MessageResourceBinaryGenerator <output-directory> [--non-recursive] [--encoding=<charset>] [scan-resource ...]");
+        }
+        boolean scanRecursive = true;
+        Charset encoding = StandardCharsets.UTF_8;
+        List<String> scanResources = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (NON_RECURSIVE.equals(args[i])) {
+                scanRecursive = false;
+            } else if (args[i].startsWith(ENCODING_PREFIX)) {
+                encoding = Charset.forName(args[i].substring(ENCODING_PREFIX.length()));
+            } else {
+                scanResources.add(args[i]);
+            }
+        }
+        if (scanResources.isEmpty()) {
+            scanResources.add(StringVariantConst.LANG);
+        }
+        generateBinaries(Paths.get(args[0]), encoding, scanRecursive, scanResources);
+    }
+
+    /**
+     * Scans the classpath for bundle files, and writes a binary file for each of them under the specified output directory
+     *
+     * @param outputDirectory the output directory, usually {@code target/classes}
+     * @param encoding the encoding of the bundle files
+     * @param scanRecursive whether to scan the {@code scanResources} recursive
+     * @param scanResources the resource paths to scan for messages
+     *
+     * @return the paths of the written binary files
+     */
+    @Nonnull
+    public static List<Path> generateBinaries(@Nonnull Path outputDirectory, @Nonnull Charset encoding, boolean scanRecursive, @Nullable List<String> scanResources) throws IOException {
+        ClassLoader loader = ClassUtils.getDefaultClassLoader();
+        Map<String, Set<Locale>> bundles = MessageResourceDetectorUtils.detectBundleLocales(scanRecursive, scanResources);
+        List<Path> result = new ArrayList<>();
+        if (loader == null || bundles == null) {
+            return result;
+        }
+        for (Map.Entry<String, Set<Locale>> bundle : bundles.entrySet()) {
+            for (Locale locale : bundle.getValue()) {
+                String bundleName = BUNDLE_CONTROL.toBundleName(bundle.getKey(), locale);
+                URL url = loader.getResource(bundleName + FILE_EXTENSION);
+                if (url == null) {
+                    continue;
+                }
+                Properties properties = new Properties();
+                try (InputStream stream = url.openStream(); Reader reader = new InputStreamReader(stream, encoding)) {
+                    properties.load(reader);
+                }
+                Map<String, String> entries = new HashMap<>(properties.size());
+                properties.stringPropertyNames().forEach(key -> entries.put(key, properties.getProperty(key)));
+                Path path = outputDirectory.resolve(StringUtils.removeStart(bundleName, "/") + MessageResourceBinaryUtils.FILE_EXTENSION);
+                Files.createDirectories(path.getParent());
+                try (OutputStream stream = Files.newOutputStream(path)) {
+                    MessageResourceBinaryUtils.writeBinary(entries, stream);
+                }
+                result.add(path);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.generator;
+
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
+import com.yookue.springstarter.messageresource.util.MessageResourceDetectorUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils;
+
+
+/**
+ * Generator for writing the message bundle index at build time
+ * <p>
+ * Usage: {@code MessageResourceIndexGenerator <output-directory> [--non-recursive] [scan-resource ...]}
+ * <p>
+ * The scan resources default to {@code lang}, the index will be written to {@code <output-directory>/META-INF/message-resource.idx}
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils
+ */
+@SuppressWarnings("unused")
+public abstract class MessageResourceIndexGenerator {
+    private static final String NON_RECURSIVE = "--non-recursive";    // $NON-NLS-1$
+
+    public static void main(@Nonnull String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: MessageResourceIndexGenerator <output-directory> [--non-recursive] [scan-resource ...]");
+        }
+        boolean scanRecursive = true;
+        List<String> scanResources = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (NON_RECURSIVE.equals(args[i])) {
+                scanRecursive = false;
+            } else {
+                scanResources.add(args[i]);
+            }
+        }
+        if (scanResources.isEmpty()) {
+            scanResources.add(StringVariantConst.LANG);
+        }
+        generateIndex(Paths.get(args[0]), scanRecursive, scanResources);
+    }
+
+    /**
+     * Scans the classpath for bundle files, and writes the index file under the specified output directory
+     *
+     * @param outputDirectory the output directory, usually {@code target/classes}
+     * @param scanRecursive whether to scan the {@code scanResources} recursive
+     * @param scanResources the resource paths to scan for messages
+     *
+     * @return the path of the written index file
+     */
+    @Nonnull
+    public static Path generateIndex(@Nonnull Path outputDirectory, boolean scanRecursive, @Nullable List<String> scanResources) throws IOException {
+        Map<String, Set<Locale>> bundles = MessageResourceDetectorUtils.detectBundleLocales(scanRecursive, scanResources);
+        Path result = outputDirectory.resolve(MessageResourceIndexUtils.INDEX_LOCATION);
+        Files.createDirectories(result.getParent());
+        try (Writer writer = Files.newBufferedWriter(result, StandardCharsets.UTF_8)) {
+            MessageResourceIndexUtils.writeIndex(bundles != null ? bundles : Collections.emptyMap(), writer);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.metrics;
+
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.HierarchicalMessageSource;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import com.yookue.springstarter.messageresource.support.BatchMessageSource;
+import com.yookue.springstarter.messageresource.support.MessageBundleInspectable;
+import com.yookue.springstarter.messageresource.support.MessageBundleStats;
+import com.yookue.springstarter.messageresource.support.MessageCacheStats;
+import com.yookue.springstarter.messageresource.support.CompiledResourceMessageSource;
+import com.yookue.springstarter.messageresource.support.MessageFormatCache;
+import com.yookue.springstarter.messageresource.support.MessageOrigin;
+import com.yookue.springstarter.messageresource.support.MessageOriginResolver;
+import com.yookue.springstarter.messageresource.support.MessagePreloadable;
+import com.yookue.springstarter.messageresource.support.MessageReloadObservable;
+import com.yookue.springstarter.messageresource.support.MessageResourcePreloader;
+import com.yookue.springstarter.messageresource.util.MessageResourceResolveUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.context.MessageSource} decorator that records lookup metrics with Micrometer
+ * <p>
+ * The lookup timers are tagged by base name and locale, the base name is only available when the delegate is a {@link com.yookue.springstarter.messageresource.support.MessageOriginResolver}
+ * <p>
+ * Only the tag locales are tagged as is, the other locales are folded into {@code other}, so that the count of the meters stays bounded
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+public class MeteredMessageSource implements HierarchicalMessageSource, BatchMessageSource, MessageBundleInspectable, MessagePreloadable {
+    public static final String LOOKUP_METER = "message.resource.lookups";    // $NON-NLS-1$
+    public static final String MISS_METER = "message.resource.misses";    // $NON-NLS-1$
+    public static final String EXCEPTION_METER = "message.resource.exceptions";    // $NON-NLS-1$
+    public static final String FALLBACK_METER = "message.resource.fallbacks";    // $NON-NLS-1$
+    public static final String RELOAD_METER = "message.resource.reloads";    // $NON-NLS-1$
+    public static final String FORMAT_CACHE_METER = "message.resource.format.cache";    // $NON-NLS-1$
+    private static final String TAG_BASENAME = "basename";    // $NON-NLS-1$
+    private static final String TAG_LOCALE = "locale";    // $NON-NLS-1$
+    private static final String TAG_RESOURCE = "resource";    // $NON-NLS-1$
+    private static final String TAG_RESULT = "result";    // $NON-NLS-1$
+    private static final String UNKNOWN = "unknown";    // $NON-NLS-1$
+    private static final String OTHER = "other";    // $NON-NLS-1$
+
+    @Getter
+    private final MessageSource delegate;
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private volatile MeterRegistry registry;
+    private volatile Map<Locale, String> localeTags = Map.of(Locale.getDefault(), Locale.getDefault().toString());
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>> lookupTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> missCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> exceptionCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> fallbackCounters = new ConcurrentHashMap<>();
+
+    public MeteredMessageSource(@Nonnull MessageSource delegate, @Nonnull ObjectProvider<MeterRegistry> registryProvider) {
+        this.delegate = delegate;
+        this.registryProvider = registryProvider;
+        if (delegate instanceof MessageReloadObservable observable) {
+            observable.addReloadListener(this::recordReload);
+        }
+    }
+
+    /**
+     * Sets the locales to tag the meters by, the other locales are tagged as {@code other}
+     *
+     * @param locales the locales to tag the meters by
+     */
+    public void setTagLocales(@Nullable Collection<Locale> locales) {
+        Map<Locale, String> result = new HashMap<>();
+        if (locales != null) {
+            locales.stream().filter(Objects::nonNull).forEach(locale -> result.put(locale, locale.toString()));
+        }
+        this.localeTags = Map.copyOf(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A miss is told by the default message being returned as is, a default message rendered with arguments is not counted as a miss
+     */
+    @Override
+    @Nullable
+    public String getMessage(@Nullable String code, @Nullable Object[] args, @Nullable String defaultMessage, @Nullable Locale locale) {
+        MeterRegistry meterRegistry = getRegistry();
+        if (meterRegistry == null) {
+            return delegate.getMessage(code, args, defaultMessage, locale);
+        }
+        Locale lookupLocale = (locale != null) ? locale : Locale.getDefault();
+        long startTime = System.nanoTime();
+        String result = delegate.getMessage(code, args, defaultMessage, locale);
+        if (result == null || result == defaultMessage) {
+            recordMiss(meterRegistry, missCounters, MISS_METER, lookupLocale);
+        }
+        recordLookup(meterRegistry, code, lookupLocale, System.nanoTime() - startTime);
+        return result;
+    }
+
+    @Override
+    @Nonnull
+    public String getMessage(@Nonnull String code, @Nullable Object[] args, @Nullable Locale locale) throws NoSuchMessageException {
+        MeterRegistry meterRegistry = getRegistry();
+        if (meterRegistry == null) {
+            return delegate.getMessage(code, args, locale);
+        }
+        Locale lookupLocale = (locale != null) ? locale : Locale.getDefault();
+        long startTime = System.nanoTime();
+        try {
+            return delegate.getMessage(code, args, locale);
+        } catch (NoSuchMessageException ex) {
+            recordMiss(meterRegistry, missCounters, MISS_METER, lookupLocale);
+            recordMiss(meterRegistry, exceptionCounters, EXCEPTION_METER, lookupLocale);
+            throw ex;
+        } finally {
+            recordLookup(meterRegistry, code, lookupLocale, System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    @Nonnull
+    public String getMessage(@Nonnull MessageSourceResolvable resolvable, @Nullable Locale locale) throws NoSuchMessageException {
+        MeterRegistry meterRegistry = getRegistry();
+        if (meterRegistry == null) {
+            return delegate.getMessage(resolvable, locale);
+        }
+        Locale lookupLocale = (locale != null) ? locale : Locale.getDefault();
+        long startTime = System.nanoTime();
+        try {
+            return delegate.getMessage(resolvable, locale);
+        } catch (NoSuchMessageException ex) {
+            recordMiss(meterRegistry, missCounters, MISS_METER, lookupLocale);
+            recordMiss(meterRegistry, exceptionCounters, EXCEPTION_METER, lookupLocale);
+            throw ex;
+        } finally {
+            String[] codes = resolvable.getCodes();
+            recordLookup(meterRegistry, ArrayUtils.isEmpty(codes) ? null : codes[0], lookupLocale, System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    @Nonnull
+    public List<String> resolveAll(@Nonnull Collection<? extends MessageSourceResolvable> resolvables, @Nullable Locale locale) {
+        List<String> result = MessageResourceResolveUtils.resolveAll(delegate, resolvables, locale);
+        MeterRegistry meterRegistry = getRegistry();
+        if (meterRegistry != null) {
+            Locale lookupLocale = (locale != null) ? locale : Locale.getDefault();
+            result.stream().filter(Objects::isNull).forEach(element -> recordMiss(meterRegistry, missCounters, MISS_METER, lookupLocale));
+        }
+        return result;
+    }
+
+    @Override
+    public void setParentMessageSource(@Nullable MessageSource parent) {
+        if (delegate instanceof HierarchicalMessageSource hierarchical) {
+            hierarchical.setParentMessageSource(parent);
+        }
+    }
+
+    @Override
+    @Nullable
+    public MessageSource getParentMessageSource() {
+        return (delegate instanceof HierarchicalMessageSource hierarchical) ? hierarchical.getParentMessageSource() : null;
+    }
+
+    @Override
+    public void preloadBundles(@Nonnull Collection<Locale> locales, @Nullable Executor executor) {
+        MessageResourcePreloader.preloadBundles(delegate, locales, executor);
+    }
+
+    @Override
+    public boolean isPreloaded(@Nonnull Locale locale) {
+        return delegate instanceof MessagePreloadable preloadable && preloadable.isPreloaded(locale);
+    }
+
+    @Override
+    @Nonnull
+    public List<MessageBundleStats> getBundleStats() {
+        return (delegate instanceof MessageBundleInspectable inspectable) ? inspectable.getBundleStats() : Collections.emptyList();
+    }
+
+    @Override
+    @Nonnull
+    public Map<String, MessageCacheStats> getCacheStats() {
+        return (delegate instanceof MessageBundleInspectable inspectable) ? inspectable.getCacheStats() : Collections.emptyMap();
+    }
+
+    @Override
+    public int evictBundles(@Nullable String baseName, @Nullable Locale locale) {
+        if (!(delegate instanceof MessageBundleInspectable inspectable)) {
+            throw new UnsupportedOperationException("Message source " + delegate.getClass().getName() + " does not support evicting bundles");
+        }
+        return inspectable.evictBundles(baseName, locale);
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+        return getClass().getSimpleName() + ": " + delegate;
+    }
+
+    @Nullable
+    private MeterRegistry getRegistry() {
+        MeterRegistry result = registry;
+        if (result == null) {
+            synchronized (this) {
+                result = registry;
+                if (result == null) {
+                    result = registryProvider.getIfAvailable();
+                    if (result != null) {
+                        bindFormatCache(result);
+                        registry = result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void bindFormatCache(@Nonnull MeterRegistry meterRegistry) {
+        if (delegate instanceof CompiledResourceMessageSource compiled) {
+            FunctionCounter.builder(FORMAT_CACHE_METER + ".requests", compiled, source -> source.getFormatCache().getHitCount()).tag(TAG_RESULT, "hit").register(meterRegistry);
+            FunctionCounter.builder(FORMAT_CACHE_METER + ".requests", compiled, source -> source.getFormatCache().getMissCount()).tag(TAG_RESULT, "miss").register(meterRegistry);
+            Gauge.builder(FORMAT_CACHE_METER + ".size", compiled, source -> source.getFormatCache().getSize()).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Records the lookup timer, the origin is only resolved for the tag locales, whose origins the delegate keeps per locale
+     */
+    private void recordLookup(@Nonnull MeterRegistry meterRegistry, @Nullable String code, @Nonnull Locale locale, long nanos) {
+        String localeTag = localeTags.get(locale);
+        MessageOrigin origin = (localeTag != null && code != null && delegate instanceof MessageOriginResolver resolver) ? resolver.resolveOrigin(code, locale) : null;
+        String baseName = (origin != null) ? origin.baseName() : UNKNOWN;
+        String tag = (localeTag != null) ? localeTag : OTHER;
+        ConcurrentMap<String, Timer> timers = lookupTimers.get(baseName);
+        if (timers == null) {
+            timers = lookupTimers.computeIfAbsent(baseName, key -> new ConcurrentHashMap<>());
+        }
+        Timer timer = timers.get(tag);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(tag, key -> Timer.builder(LOOKUP_METER).tag(TAG_BASENAME, baseName).tag(TAG_LOCALE, key).register(meterRegistry));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        if (origin != null && origin.fallback()) {
+            recordMiss(meterRegistry, fallbackCounters, FALLBACK_METER, locale);
+        }
+    }
+
+    private void recordMiss(@Nonnull MeterRegistry meterRegistry, @Nonnull ConcurrentMap<String, Counter> counters, @Nonnull String name, @Nonnull Locale locale) {
+        String tag = localeTags.getOrDefault(locale, OTHER);
+        Counter counter = counters.get(tag);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(tag, key -> Counter.builder(name).tag(TAG_LOCALE, key).register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    private void recordReload(@Nonnull String resource, long nanos) {
+        MeterRegistry meterRegistry = getRegistry();
+        if (meterRegistry != null) {
+            Timer.builder(RELOAD_METER).tag(TAG_RESOURCE, resource).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.processor;
+
+
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.metrics.StartupStep;
+import com.yookue.commonplexus.springutil.context.MessageSourceAccessorAware;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.beans.factory.config.BeanFactoryPostProcessor} for removing the accessor processor if there are no {@link com.yookue.commonplexus.springutil.context.MessageSourceAccessorAware} beans
+ * <p>
+ * The candidate beans are detected by their declared types once all the bean definitions are registered, including those of the later auto-configurations.
+ * With Spring AOT, the detection runs at build time, and the processor is left out of the generated bean definitions if there are no candidates
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.processor.MessageResourceAccessorProcessor
+ */
+@CommonsLog
+@Getter
+@Setter
+@SuppressWarnings("unused")
+public class MessageResourceAccessorCandidateProcessor implements BeanFactoryPostProcessor, Ordered {
+    public static final String STARTUP_STEP = "message-resource.accessor-candidates";    // $NON-NLS-1$
+
+    private final String processorBeanName;
+    private int order = 0;
+
+    public MessageResourceAccessorCandidateProcessor(@Nonnull String processorBeanName) {
+        this.processorBeanName = processorBeanName;
+    }
+
+    @Override
+    public void postProcessBeanFactory(@Nonnull ConfigurableListableBeanFactory factory) throws BeansException {
+        if (!(factory instanceof BeanDefinitionRegistry registry) || !factory.containsBeanDefinition(processorBeanName)) {
+            return;
+        }
+        StartupStep step = factory.getApplicationStartup().start(STARTUP_STEP);
+        String[] candidates = factory.getBeanNamesForType(MessageSourceAccessorAware.class, true, false);
+        if (candidates.length == 0) {
+            registry.removeBeanDefinition(processorBeanName);
+        }
+        step.tag("candidateBeans", String.valueOf(candidates.length));    // $NON-NLS-1$
+        step.end();
+        if (log.isDebugEnabled()) {
+            log.debug("Detected " + candidates.length + " message source accessor aware beans" + (candidates.length == 0 ? ", removed the accessor processor" : ""));
+        }
+    }
+}
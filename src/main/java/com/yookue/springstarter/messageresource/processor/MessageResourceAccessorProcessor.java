@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.processor;
+
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import com.yookue.commonplexus.springutil.context.MessageSourceAccessorAware;
+import com.yookue.commonplexus.springutil.processor.MessageSourceAccessorProcessor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.beans.factory.config.BeanPostProcessor} for injecting {@link org.springframework.context.support.MessageSourceAccessor} into {@link com.yookue.commonplexus.springutil.context.MessageSourceAccessorAware} beans
+ * <p>
+ * Only the aware beans are processed by the {@link com.yookue.commonplexus.springutil.processor.MessageSourceAccessorProcessor}, the other beans cost a type check.
+ * The time spent on the aware beans is reported as the startup step {@code message-resource.accessor-aware} after all the singletons are instantiated
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.processor.MessageSourceAccessorProcessor
+ */
+@CommonsLog
+@Getter
+@Setter
+@SuppressWarnings("unused")
+public class MessageResourceAccessorProcessor extends MessageSourceAccessorProcessor implements SmartInitializingSingleton, Ordered {
+    public static final String STARTUP_STEP = "message-resource.accessor-aware";    // $NON-NLS-1$
+
+    private final ApplicationStartup applicationStartup;
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private int order = 0;
+
+    public MessageResourceAccessorProcessor(@Nonnull ConfigurableApplicationContext context, @Nullable Locale defaultLocale) {
+        super(context, defaultLocale);
+        this.applicationStartup = context.getApplicationStartup();
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(@Nonnull Object bean, @Nonnull String beanName) throws BeansException {
+        if (!(bean instanceof MessageSourceAccessorAware)) {
+            return bean;
+        }
+        long startTime = System.nanoTime();
+        try {
+            return super.postProcessBeforeInitialization(bean, beanName);
+        } finally {
+            processedCount.increment();
+            elapsedNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@Nonnull Object bean, @Nonnull String beanName) throws BeansException {
+        if (!(bean instanceof MessageSourceAccessorAware)) {
+            return bean;
+        }
+        long startTime = System.nanoTime();
+        try {
+            return super.postProcessAfterInitialization(bean, beanName);
+        } finally {
+            elapsedNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        StartupStep step = applicationStartup.start(STARTUP_STEP);
+        step.tag("processedBeans", String.valueOf(processedCount.sum()));    // $NON-NLS-1$
+        step.tag("elapsedNanos", String.valueOf(elapsedNanos.sum()));    // $NON-NLS-1$
+        step.end();
+        if (log.isDebugEnabled()) {
+            log.debug("Injected message source accessor into " + processedCount.sum() + " beans in " + elapsedNanos.sum() / 1_000L + " us");
+        }
+    }
+}
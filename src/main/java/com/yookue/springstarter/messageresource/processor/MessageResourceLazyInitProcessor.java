@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.processor;
+
+
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.metrics.StartupStep;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.beans.factory.config.BeanFactoryPostProcessor} for marking the specified beans as lazy-init
+ * <p>
+ * The beans are created on first use, instead of during the context refresh, unless an eager bean depends on them
+ *
+ * @author David Hsing
+ */
+@CommonsLog
+@Getter
+@Setter
+@SuppressWarnings("unused")
+public class MessageResourceLazyInitProcessor implements BeanFactoryPostProcessor, Ordered {
+    public static final String STARTUP_STEP = "message-resource.lazy-init";    // $NON-NLS-1$
+
+    private final String[] beanNames;
+    private int order = 0;
+
+    public MessageResourceLazyInitProcessor(@Nonnull String... beanNames) {
+        this.beanNames = beanNames;
+    }
+
+    @Override
+    public void postProcessBeanFactory(@Nonnull ConfigurableListableBeanFactory factory) throws BeansException {
+        StartupStep step = factory.getApplicationStartup().start(STARTUP_STEP);
+        int count = 0;
+        for (String beanName : beanNames) {
+            if (factory.containsBeanDefinition(beanName)) {
+                BeanDefinition definition = factory.getBeanDefinition(beanName);
+                if (!definition.isLazyInit()) {
+                    definition.setLazyInit(true);
+                    count++;
+                }
+            }
+        }
+        step.tag("lazyBeans", String.valueOf(count));    // $NON-NLS-1$
+        step.end();
+        if (log.isDebugEnabled()) {
+            log.debug("Marked " + count + " message resource beans as lazy-init");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.processor;
+
+
+import java.util.Collection;
+import java.util.Locale;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.MessageSource;
+import org.springframework.core.Ordered;
+import com.yookue.springstarter.messageresource.config.MessageResourceAutoConfiguration;
+import com.yookue.springstarter.messageresource.metrics.MeteredMessageSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+
+/**
+ * {@link org.springframework.beans.factory.config.BeanPostProcessor} for decorating {@link org.springframework.context.MessageSource} bean with metrics
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.metrics.MeteredMessageSource
+ */
+@RequiredArgsConstructor
+@Getter
+@Setter
+public class MessageResourceMetricsProcessor implements BeanPostProcessor, Ordered {
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private int order = 0;
+
+    @Nullable
+    private Collection<Locale> tagLocales;
+
+    @Override
+    public Object postProcessAfterInitialization(@Nonnull Object bean, @Nonnull String beanName) throws BeansException {
+        if (MessageResourceAutoConfiguration.MESSAGE_SOURCE.equals(beanName) && bean instanceof MessageSource source && !(bean instanceof MeteredMessageSource)) {
+            MeteredMessageSource result = new MeteredMessageSource(source, registryProvider);
+            if (tagLocales != null) {
+                result.setTagLocales(tagLocales);
+            }
+            return result;
+        }
+        return bean;
+    }
+}
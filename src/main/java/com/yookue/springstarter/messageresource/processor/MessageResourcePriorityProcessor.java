@@ -23,6 +23,7 @@ import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.core.Ordered;
+import org.springframework.core.metrics.StartupStep;
 import com.yookue.springstarter.messageresource.config.MessageResourceAutoConfiguration;
 import lombok.Getter;
 import lombok.Setter;
@@ -36,15 +37,19 @@ import lombok.Setter;
 @Getter
 @Setter
 public class MessageResourcePriorityProcessor implements BeanFactoryPostProcessor, Ordered {
+    public static final String STARTUP_STEP = "message-resource.priority";    // $NON-NLS-1$
+
     private int order = 0;
 
     @Override
     public void postProcessBeanFactory(@Nonnull ConfigurableListableBeanFactory factory) throws BeansException {
+        StartupStep step = factory.getApplicationStartup().start(STARTUP_STEP);
         if (factory.containsBean(MessageResourceAutoConfiguration.MESSAGE_SOURCE)) {
             if (!factory.containsBean(AbstractApplicationContext.MESSAGE_SOURCE_BEAN_NAME)) {
                 factory.registerAlias(MessageResourceAutoConfiguration.MESSAGE_SOURCE, AbstractApplicationContext.MESSAGE_SOURCE_BEAN_NAME);
             }
             factory.getBeanDefinition(MessageResourceAutoConfiguration.MESSAGE_SOURCE).setPrimary(true);
         }
+        step.end();
     }
 }
@@ -22,6 +22,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -29,7 +30,11 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.convert.DurationUnit;
 import org.springframework.core.Ordered;
 import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
+import com.yookue.springstarter.messageresource.catalog.JdbcMessageCatalogProvider;
 import com.yookue.springstarter.messageresource.config.MessageResourceAutoConfiguration;
+import com.yookue.springstarter.messageresource.enumeration.MessageEngineType;
+import com.yookue.springstarter.messageresource.enumeration.MessageStorageType;
+import com.yookue.springstarter.messageresource.support.MessageHotKeyCache;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -73,6 +78,26 @@ public class MessageResourceProperties implements Serializable {
      */
     private final ExtraMessenger extraMessenger = new ExtraMessenger();
 
+    /**
+     * Metrics attributes
+     */
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Hot key pinning attributes
+     */
+    private final HotKey hotKey = new HotKey();
+
+    /**
+     * External message catalog attributes
+     */
+    private final Catalog catalog = new Catalog();
+
+    /**
+     * Reactive attributes
+     */
+    private final Reactive reactive = new Reactive();
+
 
     /**
      * Properties for message resource
@@ -83,8 +108,65 @@ public class MessageResourceProperties implements Serializable {
     @Setter
     @ToString
     public static class MessageBundle implements Serializable {
+        /**
+         * The engine of message source
+         * <p>
+         * Default is {@code standard}
+         */
+        private MessageEngineType engine = MessageEngineType.STANDARD;
+
+        /**
+         * The maximum count of the cached message format templates, keyed by code and locale
+         * <p>
+         * Only takes effect when {@code engine} is {@code compiled}, zero means no caching
+         * <p>
+         * Default is {@code 1024}
+         */
+        private Integer formatCacheSize = 1024;
+
+        /**
+         * The maximum count of the cached resolutions keyed by code and locale, such as the bundle file that a code resolves from
+         * <p>
+         * Takes effect when {@code engine} is {@code compiled}, or when {@code reloadable} is {@code true} with {@code cacheDuration}, zero means no caching
+         * <p>
+         * Default is {@code 4096}
+         */
+        private Integer resolutionCacheSize = 4096;
+
+        /**
+         * The false positive probability of the filters of the known codes of each locale, for rejecting the missing codes without probing any bundles
+         * <p>
+         * Zero means an exact hash set instead of a Bloom filter, negative means no filters
+         * <p>
+         * Default is {@code 0.01}
+         */
+        private Double codeFilterProbability = 0.01D;
+
+        /**
+         * The storage type of the loaded bundles
+         * <p>
+         * Only takes effect when {@code engine} is {@code compiled}, {@code compact} and {@code packed} share one key dictionary across all the locales of a base name
+         * <p>
+         * Default is {@code standard}
+         */
+        private MessageStorageType storage = MessageStorageType.STANDARD;
+
+        /**
+         * Whether to read the build-time binary bundle files {@code <bundle-name>.mrb} instead of the properties files, if present
+         * <p>
+         * Only takes effect when {@code engine} is {@code compiled}, a binary file is skipped if its properties file is newer, or {@code reloadable} is enabled
+         * <p>
+         * Default is {@code false}
+         *
+         * @see com.yookue.springstarter.messageresource.generator.MessageResourceBinaryGenerator
+         */
+        private Boolean useBinary = false;
+
         /**
          * Indicates whether to enable reloadable message source or not
+         * <p>
+         * When {@code engine} is {@code compiled}, the bundle files on file system are watched and reloaded in background,
+         * instead of checking on lookup after {@code cacheDuration}, the bundle files in jars are static
          *
          * @see org.springframework.context.support.ReloadableResourceBundleMessageSource
          */
@@ -103,6 +185,8 @@ public class MessageResourceProperties implements Serializable {
          * When not set, bundles are cached forever
          * <p>
          * If a duration suffix is not specified, seconds will be used
+         * <p>
+         * Only takes effect when {@code engine} is {@code standard}
          */
         @DurationUnit(value = ChronoUnit.SECONDS)
         private Duration cacheDuration;
@@ -165,6 +249,53 @@ public class MessageResourceProperties implements Serializable {
          * Especially the path of message resource bundles base names
          */
         private List<String> scanResources = Collections.singletonList(StringVariantConst.LANG);
+
+        /**
+         * Whether to read the build-time bundle index {@code META-INF/message-resource.idx} instead of scanning the classpath
+         * <p>
+         * Scanning is still performed if there are no index files on the classpath
+         * <p>
+         * Default is {@code true}
+         *
+         * @see com.yookue.springstarter.messageresource.generator.MessageResourceIndexGenerator
+         */
+        private Boolean useIndex = true;
+
+        /**
+         * The count of the worker threads to scan the classpath, if there are no index files
+         * <p>
+         * When not set, the default count of ClassGraph will be used
+         */
+        private Integer scanThreads;
+
+        /**
+         * The directory to cache the scanning results, if there are no index files
+         * <p>
+         * The cache files are keyed by a hash of the classpath entries with their sizes and modified times,
+         * so that a restart with an unchanged classpath skips the scanning. When not set, the classpath is scanned on every startup
+         */
+        private String scanCacheDirectory;
+
+        /**
+         * Whether to load and parse all the bundles in parallel during context refresh, instead of on the first lookup of each locale
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean eagerLoad = false;
+
+        /**
+         * The locales to load eagerly, if {@code eagerLoad} is {@code true}
+         * <p>
+         * When empty, the {@code defaultLocale} will be used, or the system locale if not set
+         */
+        private List<Locale> eagerLocales = new ArrayList<>();
+
+        /**
+         * The maximum count of the threads to load eagerly, the loading threads are virtual threads on JDK 21+
+         * <p>
+         * When not set, the count of available processors will be used
+         */
+        private Integer eagerThreads;
     }
 
 
@@ -191,6 +322,17 @@ public class MessageResourceProperties implements Serializable {
          * Default is {@code Ordered.LOWEST_PRECEDENCE - 1000}
          */
         private Integer processorOrder = Ordered.LOWEST_PRECEDENCE - 1000;
+
+        /**
+         * Whether to register the processor only if there are bean definitions of {@link com.yookue.commonplexus.springutil.context.MessageSourceAccessorAware}
+         * <p>
+         * The candidates are detected by the declared bean types once all the bean definitions are registered, at build time with Spring AOT.
+         * The aware beans that are declared by a type that does not implement the interface (e.g. a factory method returning {@code Object}),
+         * are not detected, so only turn it on if all the aware beans declare the interface
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean detectCandidates = false;
     }
 
 
@@ -223,5 +365,159 @@ public class MessageResourceProperties implements Serializable {
          * Default is {@code true}
          */
         private Boolean restResponse = true;
+
+        /**
+         * Indicates whether to create the messengers on first use, rather than during the context refresh
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean lazyInit = false;
+    }
+
+
+    /**
+     * Properties for message resource metrics
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.messageresource.metrics.MeteredMessageSource
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Metrics implements Serializable {
+        /**
+         * Indicates whether to record message lookup metrics or not, if Micrometer is present
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean enabled = false;
+
+        /**
+         * The locales to tag the metrics by, the other locales are tagged as {@code other}
+         * <p>
+         * When empty, the {@code eagerLocales} and the {@code defaultLocale} will be used, or the system locale if none of them is set
+         */
+        private List<Locale> locales = new ArrayList<>();
+    }
+
+
+    /**
+     * Properties for hot key pinning
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.messageresource.support.MessageHotKeyCache
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class HotKey implements Serializable {
+        /**
+         * Indicates whether to sample the lookup frequencies, and pin the resolved messages of the hottest codes without arguments, or not
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean enabled = false;
+
+        /**
+         * The maximum count of the pinned codes and locales
+         * <p>
+         * Default is {@code 64}
+         */
+        private Integer capacity = MessageHotKeyCache.DEFAULT_CAPACITY;
+
+        /**
+         * The rate of the sampled lookups, one of every {@code sampleRate} lookups is counted, rounded up to a power of two
+         * <p>
+         * Default is {@code 8}
+         */
+        private Integer sampleRate = MessageHotKeyCache.DEFAULT_SAMPLE_RATE;
+    }
+
+
+    /**
+     * Properties for external message catalog
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.messageresource.catalog.CatalogResourceMessageSource
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Catalog implements Serializable {
+        /**
+         * Indicates whether to resolve messages from an external catalog, with the scanned bundles as the fallback, or not
+         * <p>
+         * Requires a {@link com.yookue.springstarter.messageresource.catalog.MessageCatalogProvider} bean,
+         * a JDBC provider will be declared if there is a {@link javax.sql.DataSource} bean
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean enabled = false;
+
+        /**
+         * The time to live of the loaded catalogs, before checking the version stamp of the catalog in background
+         * <p>
+         * When not set, the loaded catalogs never expire
+         * <p>
+         * If a duration suffix is not specified, seconds will be used
+         * <p>
+         * Default is {@code 60s}
+         */
+        @DurationUnit(value = ChronoUnit.SECONDS)
+        private Duration timeToLive = Duration.ofSeconds(60L);
+
+        /**
+         * The table of the catalog, for the JDBC provider
+         * <p>
+         * Default is {@code message_catalog}
+         */
+        private String tableName = JdbcMessageCatalogProvider.DEFAULT_TABLE;
+
+        /**
+         * The column of the message codes, for the JDBC provider
+         * <p>
+         * Default is {@code code}
+         */
+        private String codeColumn = JdbcMessageCatalogProvider.DEFAULT_CODE_COLUMN;
+
+        /**
+         * The column of the locales, for the JDBC provider, such as {@code zh_CN}, empty for the default messages
+         * <p>
+         * Default is {@code locale}
+         */
+        private String localeColumn = JdbcMessageCatalogProvider.DEFAULT_LOCALE_COLUMN;
+
+        /**
+         * The column of the messages, for the JDBC provider
+         * <p>
+         * Default is {@code message}
+         */
+        private String messageColumn = JdbcMessageCatalogProvider.DEFAULT_MESSAGE_COLUMN;
+
+        /**
+         * The column of the version stamps, for the JDBC provider, the maximum of which is the version stamp of the catalog, no version stamp if blank
+         * <p>
+         * Default is {@code version}
+         */
+        private String versionColumn = JdbcMessageCatalogProvider.DEFAULT_VERSION_COLUMN;
+    }
+
+
+    /**
+     * Properties for reactive message resource
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.messageresource.reactive.ReactiveMessageSource
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Reactive implements Serializable {
+        /**
+         * Indicates whether to enable {@link com.yookue.springstarter.messageresource.reactive.ReactiveMessageSource} or not, if Reactor is present
+         * <p>
+         * Default is {@code true}
+         */
+        private Boolean enabled = true;
     }
 }
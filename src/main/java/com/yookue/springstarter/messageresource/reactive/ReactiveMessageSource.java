@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.reactive;
+
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import com.yookue.springstarter.messageresource.support.MessagePreloadable;
+import com.yookue.springstarter.messageresource.util.MessageResourceResolveUtils;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+
+/**
+ * Non-blocking adapter of {@link org.springframework.context.MessageSource}
+ * <p>
+ * If the bundles of the locale are in memory, the message is resolved synchronously on the subscribing thread.
+ * Otherwise, the bundles are loaded or reloaded and the message is resolved on the scheduler (bounded elastic by default),
+ * so that an event loop thread never blocks on file I/O
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessagePreloadable#isPreloaded(java.util.Locale)
+ */
+@Getter
+@SuppressWarnings("unused")
+public class ReactiveMessageSource {
+    private final MessageSource delegate;
+    private final Scheduler scheduler;
+
+    public ReactiveMessageSource(@Nonnull MessageSource delegate) {
+        this(delegate, Schedulers.boundedElastic());
+    }
+
+    public ReactiveMessageSource(@Nonnull MessageSource delegate, @Nonnull Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the message of the code, or the default message if not found
+     *
+     * @return the message of the code, or the default message if not found, empty if both are {@code null}
+     */
+    @Nonnull
+    public Mono<String> getMessage(@Nonnull String code, @Nullable Object[] args, @Nullable String defaultMessage, @Nullable Locale locale) {
+        return resolve(locale, lookupLocale -> delegate.getMessage(code, args, defaultMessage, lookupLocale));
+    }
+
+    /**
+     * Returns the message of the code
+     *
+     * @return the message of the code, or an error of {@link org.springframework.context.NoSuchMessageException} if not found
+     */
+    @Nonnull
+    public Mono<String> getMessage(@Nonnull String code, @Nullable Object[] args, @Nullable Locale locale) {
+        return resolve(locale, lookupLocale -> delegate.getMessage(code, args, lookupLocale));
+    }
+
+    /**
+     * Returns the message of the resolvable
+     *
+     * @return the message of the resolvable, or an error of {@link org.springframework.context.NoSuchMessageException} if not found
+     */
+    @Nonnull
+    public Mono<String> getMessage(@Nonnull MessageSourceResolvable resolvable, @Nullable Locale locale) {
+        return resolve(locale, lookupLocale -> delegate.getMessage(resolvable, lookupLocale));
+    }
+
+    /**
+     * Returns the messages of the resolvables
+     *
+     * @return the messages in the order of the resolvables, {@code null} for those could not be resolved
+     *
+     * @see com.yookue.springstarter.messageresource.util.MessageResourceResolveUtils#resolveAll
+     */
+    @Nonnull
+    public Mono<List<String>> resolveAll(@Nonnull Collection<? extends MessageSourceResolvable> resolvables, @Nullable Locale locale) {
+        return resolve(locale, lookupLocale -> MessageResourceResolveUtils.resolveAll(delegate, resolvables, lookupLocale));
+    }
+
+    @Nonnull
+    private <T> Mono<T> resolve(@Nullable Locale locale, @Nonnull Function<Locale, T> lookup) {
+        return Mono.defer(() -> {
+            Locale lookupLocale = (locale != null) ? locale : Locale.getDefault();
+            if (delegate instanceof MessagePreloadable preloadable) {
+                if (preloadable.isPreloaded(lookupLocale)) {
+                    return Mono.fromCallable(() -> lookup.apply(lookupLocale));
+                }
+                return Mono.fromCallable(() -> {
+                    preloadable.preloadBundles(Set.of(lookupLocale), null);
+                    return lookup.apply(lookupLocale);
+                }).subscribeOn(scheduler);
+            }
+            return Mono.fromCallable(() -> lookup.apply(lookupLocale)).subscribeOn(scheduler);
+        });
+    }
+}
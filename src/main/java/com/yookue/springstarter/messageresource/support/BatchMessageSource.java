@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.context.MessageSourceResolvable;
+
+
+/**
+ * Message source that resolves a batch of messages in one pass
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.util.MessageResourceResolveUtils
+ */
+public interface BatchMessageSource {
+    /**
+     * Resolves the messages of the specified resolvables, such as the errors of a {@link org.springframework.validation.BindingResult}
+     *
+     * @param resolvables the resolvables to resolve
+     * @param locale the locale of the messages, or {@code null} for the default locale
+     *
+     * @return the resolved messages in the order of the resolvables, {@code null} for those could not be resolved
+     */
+    @Nonnull
+    List<String> resolveAll(@Nonnull Collection<? extends MessageSourceResolvable> resolvables, @Nullable Locale locale);
+}
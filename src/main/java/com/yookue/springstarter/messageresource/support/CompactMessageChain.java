@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Immutable view of the messages of a locale, chaining the message tables of each base name
+ * <p>
+ * For {@link com.yookue.springstarter.messageresource.support.CompactMessageTable}s, a lookup is a dictionary lookup for each base name,
+ * then array reads along the candidate locales. Other tables, such as {@link com.yookue.springstarter.messageresource.support.MappedMessageTable}s,
+ * are looked up one by one. No table is copied for the locale
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+public class CompactMessageChain extends AbstractMap<String, CompiledMessage> {
+    private final Map<String, CompiledMessage>[][] chains;
+    private final boolean decoding;
+    private final MessageCodeFilter filter;
+
+    /**
+     * Constructs a new view
+     *
+     * @param chains the tables of each base name in the order of precedence, and the tables of a base name are in the order of candidate locales,
+     * the tables of a {@code CompactMessageTable[]} must share one key dictionary
+     * @param filter the filter of the known codes, for rejecting the missing codes without probing the tables
+     */
+    @SuppressWarnings("unchecked")
+    public CompactMessageChain(@Nonnull List<Map<String, CompiledMessage>[]> chains, @Nullable MessageCodeFilter filter) {
+        this.chains = chains.stream().filter(chain -> chain.length > 0).toArray(Map[][]::new);
+        this.filter = filter;
+        this.decoding = Arrays.stream(this.chains).flatMap(Arrays::stream).anyMatch(table -> table instanceof MappedMessageTable || (table instanceof CompactMessageTable compact && compact.isPacked()));
+    }
+
+    /**
+     * Returns whether some of the tables decode the messages on each lookup
+     */
+    public boolean isDecoding() {
+        return decoding;
+    }
+
+    /**
+     * Returns whether the specified code might be in the tables
+     *
+     * @param key the code to look up
+     *
+     * @return {@code false} if the specified code is definitely missing
+     */
+    public boolean mightContain(@Nullable Object key) {
+        return filter == null || filter.mightContain(key);
+    }
+
+    @Override
+    @Nullable
+    public CompiledMessage get(@Nullable Object key) {
+        if (!mightContain(key)) {
+            return null;
+        }
+        for (Map<String, CompiledMessage>[] chain : chains) {
+            if (chain instanceof CompactMessageTable[] tables) {
+                int id = tables[0].getDictionary().indexOf(key);
+                if (id < 0) {
+                    continue;
+                }
+                for (CompactMessageTable table : tables) {
+                    CompiledMessage message = table.getAt(id);
+                    if (message != null) {
+                        return message;
+                    }
+                }
+                continue;
+            }
+            for (Map<String, CompiledMessage> table : chain) {
+                CompiledMessage message = table.get(key);
+                if (message != null) {
+                    return message;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @Nonnull
+    public Set<Entry<String, CompiledMessage>> entrySet() {
+        Map<String, CompiledMessage> result = new LinkedHashMap<>();
+        for (Map<String, CompiledMessage>[] chain : chains) {
+            for (Map<String, CompiledMessage> table : chain) {
+                table.forEach(result::putIfAbsent);
+            }
+        }
+        return result.entrySet();
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import com.yookue.springstarter.messageresource.util.MessageResourceSizeUtils;
+import lombok.Getter;
+
+
+/**
+ * Immutable messages of a bundle file, indexed by a {@link com.yookue.springstarter.messageresource.support.MessageKeyDictionary} shared by all the locales of a base name
+ * <p>
+ * When packed, the distinct texts are concatenated into a Latin-1 byte array if possible, or an UTF-8 byte array otherwise, and decoded on lookup
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.enumeration.MessageStorageType
+ */
+@SuppressWarnings("unused")
+public class CompactMessageTable extends AbstractMap<String, CompiledMessage> {
+    @Getter
+    private final MessageKeyDictionary dictionary;
+
+    private final int size;
+    private final CompiledMessage[] messages;
+    private final byte[] packedTexts;
+    private final int[] packedOffsets;
+    private final long[] presentFlags;
+    private final long[] plainFlags;
+    private final Charset packedCharset;
+
+    /**
+     * Constructs a new table
+     *
+     * @param dictionary the key dictionary, must contain all the codes of the entries
+     * @param entries the messages of a bundle file
+     * @param packed whether to pack the texts into a byte array
+     */
+    public CompactMessageTable(@Nonnull MessageKeyDictionary dictionary, @Nonnull Map<String, CompiledMessage> entries, boolean packed) {
+        this.dictionary = dictionary;
+        this.size = entries.size();
+        CompiledMessage[] values = new CompiledMessage[dictionary.size()];
+        entries.forEach((key, value) -> values[dictionary.indexOf(key)] = value);
+        if (!packed) {
+            this.messages = values;
+            this.packedTexts = null;
+            this.packedOffsets = null;
+            this.presentFlags = null;
+            this.plainFlags = null;
+            this.packedCharset = null;
+            return;
+        }
+        this.messages = null;
+        this.packedCharset = entries.values().stream().allMatch(value -> isLatin1(value.text())) ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+        this.packedOffsets = new int[values.length * 2];
+        this.presentFlags = new long[(values.length + 63) >>> 6];
+        this.plainFlags = new long[presentFlags.length];
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        Map<String, Integer> written = new HashMap<>();
+        for (int id = 0; id < values.length; id++) {
+            CompiledMessage value = values[id];
+            if (value == null) {
+                continue;
+            }
+            byte[] bytes = value.text().getBytes(packedCharset);
+            Integer offset = written.get(value.text());
+            if (offset == null) {
+                offset = stream.size();
+                stream.writeBytes(bytes);
+                written.put(value.text(), offset);
+            }
+            packedOffsets[id * 2] = offset;
+            packedOffsets[id * 2 + 1] = bytes.length;
+            presentFlags[id >>> 6] |= 1L << id;
+            if (value.plain()) {
+                plainFlags[id >>> 6] |= 1L << id;
+            }
+        }
+        this.packedTexts = stream.toByteArray();
+    }
+
+    /**
+     * Returns the message of the specified id
+     *
+     * @param id the id in the key dictionary
+     *
+     * @return the message of the specified id, or {@code null} if absent in this table
+     */
+    @Nullable
+    public CompiledMessage getAt(int id) {
+        if (messages != null) {
+            return messages[id];
+        }
+        if (!isPresent(id)) {
+            return null;
+        }
+        String text = new String(packedTexts, packedOffsets[id * 2], packedOffsets[id * 2 + 1], packedCharset);
+        return new CompiledMessage(text, (plainFlags[id >>> 6] & (1L << id)) != 0);
+    }
+
+    /**
+     * Returns whether the texts are packed, and decoded on each lookup
+     */
+    public boolean isPacked() {
+        return messages == null;
+    }
+
+    /**
+     * Returns the estimated heap size of the messages, excluding the key dictionary that shared across the locales
+     */
+    public long getEstimatedBytes() {
+        if (messages == null) {
+            return MessageResourceSizeUtils.estimateArray(packedTexts.length, 1) + MessageResourceSizeUtils.estimateArray(packedOffsets.length, 4) + MessageResourceSizeUtils.estimateArray(presentFlags.length, 8) * 2;
+        }
+        long result = MessageResourceSizeUtils.estimateArray(messages.length, 4);
+        for (CompiledMessage message : messages) {
+            result += MessageResourceSizeUtils.estimateMessage(message);
+        }
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public CompiledMessage get(@Nullable Object key) {
+        int id = dictionary.indexOf(key);
+        return (id < 0) ? null : getAt(id);
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        int id = dictionary.indexOf(key);
+        return id >= 0 && isPresent(id);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @Nonnull
+    public Set<String> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            @Nonnull
+            public Iterator<String> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < dictionary.size();
+                    }
+
+                    @Override
+                    @Nonnull
+                    public String next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int id = next;
+                        next = advance(id + 1);
+                        return dictionary.keyAt(id);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(@Nullable Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    @Nonnull
+    public Set<Entry<String, CompiledMessage>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            @Nonnull
+            public Iterator<Entry<String, CompiledMessage>> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < dictionary.size();
+                    }
+
+                    @Override
+                    @Nonnull
+                    public Entry<String, CompiledMessage> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int id = next;
+                        next = advance(id + 1);
+                        return new SimpleImmutableEntry<>(dictionary.keyAt(id), getAt(id));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int advance(int from) {
+        int id = from;
+        while (id < dictionary.size() && !isPresent(id)) {
+            id++;
+        }
+        return id;
+    }
+
+    private boolean isPresent(int id) {
+        return (messages != null) ? messages[id] != null : (presentFlags[id >>> 6] & (1L << id)) != 0;
+    }
+
+    private static boolean isLatin1(@Nonnull String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import jakarta.annotation.Nonnull;
+
+
+/**
+ * Message entry of {@link com.yookue.springstarter.messageresource.support.CompiledResourceMessageSource}
+ *
+ * @param text the raw message text
+ * @param plain whether the text has no arguments and no quote escapes, that is, the text renders as is
+ *
+ * @author David Hsing
+ */
+public record CompiledMessage(@Nonnull String text, boolean plain) {
+    @Nonnull
+    public static CompiledMessage of(@Nonnull String text) {
+        return new CompiledMessage(text, text.indexOf('{') < 0 && text.indexOf('\'') < 0);
+    }
+}
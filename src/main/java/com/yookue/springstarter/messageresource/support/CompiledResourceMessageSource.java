@@ -0,0 +1,875 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.support.AbstractResourceBasedMessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ResourceUtils;
+import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
+import com.yookue.springstarter.messageresource.enumeration.MessageStorageType;
+import com.yookue.springstarter.messageresource.util.MessageResourceBinaryUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceDetectorUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceResolveUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceSizeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.context.MessageSource} that precompiles all the bundles into immutable tables
+ * <p>
+ * Every bundle file of the base names is loaded only once, then each requested locale gets a flat table keyed by code,
+ * with the locale fallback chain and the base name precedence already resolved. So that a lookup is a single hash lookup without locks.
+ *
+ * @author David Hsing
+ * @see org.springframework.context.support.ResourceBundleMessageSource
+ */
+@CommonsLog
+@SuppressWarnings({"unused", "JavadocDeclaration"})
+public class CompiledResourceMessageSource extends AbstractResourceBasedMessageSource implements BeanClassLoaderAware, DisposableBean, BatchMessageSource, MessageBundleInspectable, MessageHotKeyAware, MessageOriginResolver, MessagePreloadable, MessageReloadObservable {
+    private static final ResourceBundle.Control BUNDLE_CONTROL = ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+    private static final String FILE_EXTENSION = "." + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
+    private static final String FORMAT_CACHE = "format";    // $NON-NLS-1$
+    private static final String CANDIDATE_CACHE = "candidate";    // $NON-NLS-1$
+    private static final String MESSAGE_CACHE = "message";    // $NON-NLS-1$
+    public static final int DEFAULT_FORMAT_CACHE_SIZE = 1024;
+    public static final int DEFAULT_RESOLUTION_CACHE_SIZE = 4096;
+
+    /**
+     * The available locales of each base name, the default file is represented as {@link java.util.Locale#ROOT}
+     * <p>
+     * The base names without any locales will be discovered from the classpath
+     */
+    @Setter
+    @Nullable
+    private Map<String, Set<Locale>> bundleLocales;
+
+    /**
+     * Whether to watch the bundle files on file system, and reload the changed files in background
+     * <p>
+     * The bundle files in jars are static
+     */
+    @Setter
+    private boolean watchResources = false;
+
+    /**
+     * The storage type of the loaded bundles and compiled tables
+     */
+    @Setter
+    @Nonnull
+    private MessageStorageType storageType = MessageStorageType.STANDARD;
+
+    /**
+     * Whether to read the binary bundle files {@code <bundle-name>.mrb} instead of the properties files, if present
+     * <p>
+     * A binary file is skipped if its properties file is newer, or the resources are watched, so that the edited properties files are never hidden
+     *
+     * @see com.yookue.springstarter.messageresource.generator.MessageResourceBinaryGenerator
+     */
+    @Setter
+    private boolean useBinary = false;
+
+    /**
+     * The false positive probability of the filters of the known codes, an exact hash set will be used if zero, no filters if negative
+     * <p>
+     * The filters are built for the chained tables only, a miss of the flat tables is a single hash lookup already,
+     * and a miss of the binary files is rejected by binary search without reading their keys on heap
+     */
+    @Setter
+    private double codeFilterProbability = 0.01D;
+
+    @Nullable
+    private ClassLoader bundleClassLoader = ClassUtils.getDefaultClassLoader();
+
+    @Getter
+    private MessageFormatCache formatCache = new MessageFormatCache(DEFAULT_FORMAT_CACHE_SIZE, this::createMessageFormat);
+
+    private int resolutionCacheSize = DEFAULT_RESOLUTION_CACHE_SIZE;
+
+    private final Object loadMonitor = new Object();
+    private volatile CompiledState compiledState;
+    private final ConcurrentMap<BundleKey, BundleLoad> bundleLoads = new ConcurrentHashMap<>();
+    private final List<MessageReloadListener> reloadListeners = new CopyOnWriteArrayList<>();
+    private final Map<Path, String> watchedDirectories = new ConcurrentHashMap<>();
+    private final MessageResourceWatcher resourceWatcher = new MessageResourceWatcher(this::reloadBundleFile, this::reloadBundles);
+    private volatile MessageHotKeyCache hotKeyCache;
+
+    @Override
+    public void setBeanClassLoader(@Nonnull ClassLoader loader) {
+        this.bundleClassLoader = loader;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        resourceWatcher.close();
+    }
+
+    @Override
+    public void addReloadListener(@Nonnull MessageReloadListener listener) {
+        reloadListeners.add(listener);
+    }
+
+    @Override
+    public void setHotKeyCache(@Nullable MessageHotKeyCache hotKeyCache) {
+        this.hotKeyCache = hotKeyCache;
+    }
+
+    /**
+     * Sets the maximum count of the cached {@link java.text.MessageFormat} templates, zero means no caching
+     *
+     * @param size the maximum count of the cached templates
+     */
+    public void setFormatCacheSize(int size) {
+        this.formatCache = new MessageFormatCache(size, this::createMessageFormat);
+    }
+
+    /**
+     * Sets the maximum count of the cached candidate locales and decoded messages of the chained tables
+     *
+     * @param size the maximum count of each cache, zero means no caching
+     */
+    public void setResolutionCacheSize(int size) {
+        synchronized (loadMonitor) {
+            this.resolutionCacheSize = size;
+            CompiledState state = compiledState;
+            if (state != null) {
+                publishState(state.bundles);
+            }
+        }
+    }
+
+    @Override
+    @Nullable
+    protected String getMessageInternal(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale) {
+        MessageHotKeyCache cache = hotKeyCache;
+        return (cache == null) ? resolveMessageInternal(code, args, locale) : cache.getMessage(code, args, locale, this::resolveMessageInternal);
+    }
+
+    @Nullable
+    private String resolveMessageInternal(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale) {
+        String result = resolvePlainMessage(code, args, locale);
+        return (result != null) ? result : super.getMessageInternal(code, args, locale);
+    }
+
+    @Override
+    @Nullable
+    protected String resolveCodeWithoutArguments(@Nonnull String code, @Nonnull Locale locale) {
+        CompiledMessage message = lookupMessage(code, locale);
+        return (message == null) ? null : message.text();
+    }
+
+    @Override
+    @Nullable
+    protected MessageFormat resolveCode(@Nonnull String code, @Nonnull Locale locale) {
+        CompiledMessage message = lookupMessage(code, locale);
+        return (message == null) ? null : formatCache.getMessageFormat(code, locale, message.text());
+    }
+
+    /**
+     * Returns the stored text directly if the message has no arguments and renders as is, without any allocation
+     */
+    @Nullable
+    private String resolvePlainMessage(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale) {
+        if (code == null || (args != null && args.length > 0)) {
+            return null;
+        }
+        CompiledMessage message = lookupMessage(code, (locale != null) ? locale : Locale.getDefault());
+        return (message != null && (message.plain() || !isAlwaysUseMessageFormat())) ? message.text() : null;
+    }
+
+    /**
+     * Returns the message of the specified code and locale, the messages of the decoding tables are cached
+     */
+    @Nullable
+    private CompiledMessage lookupMessage(@Nonnull String code, @Nonnull Locale locale) {
+        CompiledState state = getCompiledState();
+        Map<String, CompiledMessage> table = state.getTable(locale);
+        if (table instanceof CompactMessageChain chain && chain.isDecoding()) {
+            return chain.mightContain(code) ? state.messageCache.get(new ResolutionKey(code, locale)) : null;
+        }
+        return table.get(code);
+    }
+
+    /**
+     * Resolves the messages with the table of the locale fetched once
+     * <p>
+     * A resolvable goes the full {@link org.springframework.context.MessageSource#getMessage(org.springframework.context.MessageSourceResolvable, java.util.Locale)} way,
+     * if none of its codes is in the table, or there are common messages or a parent message source that an earlier code might resolve from
+     */
+    @Override
+    @Nonnull
+    public List<String> resolveAll(@Nonnull Collection<? extends MessageSourceResolvable> resolvables, @Nullable Locale locale) {
+        Locale lookupLocale = (locale != null) ? locale : Locale.getDefault();
+        Map<String, CompiledMessage> table = getCompiledTable(lookupLocale);
+        boolean tableOnly = getCommonMessages() == null && getParentMessageSource() == null;
+        List<String> result = new ArrayList<>(resolvables.size());
+        for (MessageSourceResolvable resolvable : resolvables) {
+            String message = tableOnly ? resolveTableMessage(table, resolvable, lookupLocale) : null;
+            result.add((message != null) ? message : MessageResourceResolveUtils.resolveMessage(this, resolvable, lookupLocale));
+        }
+        return result;
+    }
+
+    @Nullable
+    private String resolveTableMessage(@Nonnull Map<String, CompiledMessage> table, @Nonnull MessageSourceResolvable resolvable, @Nonnull Locale locale) {
+        String[] codes = resolvable.getCodes();
+        if (codes == null) {
+            return null;
+        }
+        Object[] args = resolvable.getArguments();
+        for (String code : codes) {
+            CompiledMessage message = (code == null) ? null : table.get(code);
+            if (message != null) {
+                boolean plain = ArrayUtils.isEmpty(args) && (message.plain() || !isAlwaysUseMessageFormat());
+                return plain ? message.text() : getMessage(code, args, locale);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The origins are compiled per locale, or located by probing the files if some of them are binary, without reading their keys on heap
+     */
+    @Override
+    @Nullable
+    public MessageOrigin resolveOrigin(@Nonnull String code, @Nonnull Locale locale) {
+        CompiledState state = getCompiledState();
+        return state.mapped ? locateOrigin(state, code, locale) : state.getOrigins(locale).get(code);
+    }
+
+    @Nullable
+    private MessageOrigin locateOrigin(@Nonnull CompiledState state, @Nonnull String code, @Nonnull Locale locale) {
+        for (String baseName : getBasenameSet()) {
+            Map<Locale, Map<String, CompiledMessage>> files = state.bundles.get(baseName);
+            if (CollectionUtils.isEmpty(files)) {
+                continue;
+            }
+            for (Locale candidate : state.getCandidates(files.keySet(), locale)) {
+                Map<String, CompiledMessage> entries = files.get(candidate);
+                if (entries != null && entries.containsKey(code)) {
+                    boolean fallback = !Locale.ROOT.equals(candidate) && !BUNDLE_CONTROL.getCandidateLocales(StringUtils.EMPTY, locale).contains(candidate);
+                    return new MessageOrigin(baseName, candidate, fallback);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the origins of all the codes of the specified locale, built at once and sharing one origin per bundle file
+     */
+    @Nonnull
+    private Map<String, MessageOrigin> compileOrigins(@Nonnull CompiledState state, @Nonnull Locale locale) {
+        List<Locale> requested = BUNDLE_CONTROL.getCandidateLocales(StringUtils.EMPTY, locale);
+        Map<String, MessageOrigin> result = new HashMap<>();
+        for (String baseName : getBasenameSet()) {
+            Map<Locale, Map<String, CompiledMessage>> files = state.bundles.get(baseName);
+            if (CollectionUtils.isEmpty(files)) {
+                continue;
+            }
+            for (Locale candidate : state.getCandidates(files.keySet(), locale)) {
+                Map<String, CompiledMessage> entries = files.get(candidate);
+                if (entries != null) {
+                    boolean fallback = !Locale.ROOT.equals(candidate) && !requested.contains(candidate);
+                    MessageOrigin origin = new MessageOrigin(baseName, candidate, fallback);
+                    entries.keySet().forEach(code -> result.putIfAbsent(code, origin));
+                }
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    @Override
+    public void preloadBundles(@Nonnull Collection<Locale> locales, @Nullable Executor executor) {
+        CompiledState state = getCompiledState(executor);
+        CompletableFuture<?>[] futures = locales.stream().map(locale -> MessageResourcePreloader.runAsync(() -> state.getTable(locale), executor)).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Override
+    public boolean isPreloaded(@Nonnull Locale locale) {
+        CompiledState state = compiledState;
+        return state != null && state.tables.containsKey(locale);
+    }
+
+    /**
+     * Reloads the bundle file of the specified base name and locale, then swaps it into the loaded bundles and compiled tables
+     *
+     * @param baseName the base name of the bundle
+     * @param locale the locale of the bundle file, the default file is represented as {@link java.util.Locale#ROOT}
+     */
+    public void reloadBundleFile(@Nonnull String baseName, @Nonnull Locale locale) {
+        reloadBundleFiles(Collections.singletonMap(baseName, Collections.singleton(locale)));
+    }
+
+    /**
+     * Reloads all the bundle files, then swaps them into the loaded bundles and compiled tables
+     */
+    public void reloadBundles() {
+        synchronized (loadMonitor) {
+            if (compiledState != null) {
+                bundleLoads.clear();
+                Map<String, Long> elapsedTimes = new ConcurrentHashMap<>();
+                publishState(loadBundles(null, elapsedTimes));
+                notifyReload(elapsedTimes);
+            }
+        }
+    }
+
+    /**
+     * Drops all the loaded bundles and compiled tables, the bundles will be loaded again on next lookup
+     */
+    public void clearCache() {
+        synchronized (loadMonitor) {
+            compiledState = null;
+            bundleLoads.clear();
+        }
+        formatCache.clear();
+        MessageHotKeyCache cache = hotKeyCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    @Nonnull
+    public List<MessageBundleStats> getBundleStats() {
+        CompiledState state = compiledState;
+        if (state == null) {
+            return Collections.emptyList();
+        }
+        List<MessageBundleStats> result = new ArrayList<>();
+        state.bundles.forEach((baseName, files) -> files.forEach((locale, entries) -> {
+            BundleLoad load = bundleLoads.get(new BundleKey(baseName, locale));
+            long loadedTime = (load == null) ? 0L : load.loadedTime();
+            long loadNanos = (load == null) ? 0L : load.loadNanos();
+            result.add(new MessageBundleStats(baseName, locale, entries.size(), MessageResourceSizeUtils.estimateTable(entries), loadedTime, loadNanos));
+        }));
+        return result;
+    }
+
+    @Override
+    @Nonnull
+    public Map<String, MessageCacheStats> getCacheStats() {
+        Map<String, MessageCacheStats> result = new LinkedHashMap<>();
+        result.put(FORMAT_CACHE, MessageCacheStats.of(formatCache));
+        CompiledState state = compiledState;
+        if (state != null) {
+            result.put(CANDIDATE_CACHE, MessageCacheStats.of(state.candidateCache));
+            result.put(MESSAGE_CACHE, MessageCacheStats.of(state.messageCache));
+        }
+        return result;
+    }
+
+    /**
+     * Reloads the bundle files of the specified base name and locale eagerly, then swaps them into the loaded bundles and compiled tables
+     * <p>
+     * Nothing is evicted if the bundles have not been loaded yet
+     */
+    @Override
+    public int evictBundles(@Nullable String baseName, @Nullable Locale locale) {
+        CompiledState state = compiledState;
+        if (state == null) {
+            return 0;
+        }
+        Map<String, Set<Locale>> targets = new LinkedHashMap<>();
+        for (String name : getBasenameSet()) {
+            if (baseName != null && !StringUtils.equals(baseName, name)) {
+                continue;
+            }
+            if (locale != null) {
+                targets.put(name, Collections.singleton(locale));
+                continue;
+            }
+            Set<Locale> locales = new LinkedHashSet<>(state.bundles.getOrDefault(name, Collections.emptyMap()).keySet());
+            locales.addAll(getBundleLocales(name));
+            targets.put(name, locales);
+        }
+        return reloadBundleFiles(targets);
+    }
+
+    /**
+     * Returns the flat table of the specified locale, compiling it at first time
+     *
+     * @param locale the locale to look up
+     *
+     * @return the flat table of the specified locale
+     */
+    @Nonnull
+    protected Map<String, CompiledMessage> getCompiledTable(@Nonnull Locale locale) {
+        return getCompiledState().getTable(locale);
+    }
+
+    @Nonnull
+    private CompiledState getCompiledState() {
+        return getCompiledState(null);
+    }
+
+    @Nonnull
+    private CompiledState getCompiledState(@Nullable Executor executor) {
+        CompiledState result = compiledState;
+        if (result == null) {
+            synchronized (loadMonitor) {
+                result = compiledState;
+                if (result == null) {
+                    Map<String, Long> elapsedTimes = new ConcurrentHashMap<>();
+                    result = new CompiledState(loadBundles(executor, elapsedTimes));
+                    compiledState = result;
+                    notifyReload(elapsedTimes);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the state of the specified bundles, compiles the tables of the locales that the current state has compiled, then publishes it at once
+     * <p>
+     * The caller must hold the load monitor
+     */
+    private void publishState(@Nonnull Map<String, Map<Locale, Map<String, CompiledMessage>>> bundles) {
+        CompiledState current = compiledState;
+        CompiledState result = new CompiledState(bundles);
+        if (current != null) {
+            current.tables.keySet().forEach(result::getTable);
+        }
+        compiledState = result;
+    }
+
+    /**
+     * Reloads the specified bundle files, then swaps them into the loaded bundles and compiled tables at once
+     *
+     * @return the count of the reloaded bundle files that are present
+     */
+    private int reloadBundleFiles(@Nonnull Map<String, ? extends Collection<Locale>> targets) {
+        synchronized (loadMonitor) {
+            CompiledState state = compiledState;
+            if (state == null) {
+                return 0;
+            }
+            Map<String, Map<Locale, Map<String, CompiledMessage>>> bundles = state.bundles;
+            long startTime = System.nanoTime();
+            Map<String, CompiledMessage> pool = new HashMap<>();
+            Map<String, Map<Locale, Map<String, CompiledMessage>>> result = new LinkedHashMap<>(bundles);
+            List<String> baseNames = new ArrayList<>();
+            int count = 0;
+            for (Map.Entry<String, ? extends Collection<Locale>> target : targets.entrySet()) {
+                String baseName = target.getKey();
+                if (!getBasenameSet().contains(baseName)) {
+                    continue;
+                }
+                Map<Locale, Map<String, CompiledMessage>> files = new LinkedHashMap<>(bundles.getOrDefault(baseName, Collections.emptyMap()));
+                for (Locale locale : target.getValue()) {
+                    Map<String, CompiledMessage> entries = loadTimedBundleFile(baseName, locale, pool);
+                    if (entries != null) {
+                        files.put(locale, entries);
+                        count++;
+                    } else {
+                        files.remove(locale);
+                    }
+                }
+                result.put(baseName, compactBundle(files));
+                baseNames.add(baseName);
+            }
+            if (baseNames.isEmpty()) {
+                return 0;
+            }
+            publishState(Collections.unmodifiableMap(result));
+            long elapsed = System.nanoTime() - startTime;
+            baseNames.forEach(baseName -> reloadListeners.forEach(listener -> listener.onReload(baseName, elapsed)));
+            return count;
+        }
+    }
+
+    @Nonnull
+    private Map<String, CompiledMessage> compileTable(@Nonnull CompiledState state, @Nonnull Locale locale) {
+        Map<String, Map<Locale, Map<String, CompiledMessage>>> bundles = state.bundles;
+        if (storageType != MessageStorageType.STANDARD || state.mapped) {
+            return compileChain(state, locale);
+        }
+        Map<String, CompiledMessage> result = new HashMap<>();
+        for (String baseName : getBasenameSet()) {
+            Map<Locale, Map<String, CompiledMessage>> files = bundles.get(baseName);
+            if (CollectionUtils.isEmpty(files)) {
+                continue;
+            }
+            for (Locale candidate : state.getCandidates(files.keySet(), locale)) {
+                Map<String, CompiledMessage> entries = files.get(candidate);
+                if (entries != null) {
+                    entries.forEach(result::putIfAbsent);
+                }
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    @Nonnull
+    private Map<String, CompiledMessage> compileChain(@Nonnull CompiledState state, @Nonnull Locale locale) {
+        List<Map<String, CompiledMessage>[]> chains = new ArrayList<>();
+        for (String baseName : getBasenameSet()) {
+            Map<Locale, Map<String, CompiledMessage>> files = state.bundles.get(baseName);
+            if (CollectionUtils.isEmpty(files)) {
+                continue;
+            }
+            List<Map<String, CompiledMessage>> tables = state.getCandidates(files.keySet(), locale).stream().map(files::get).filter(Objects::nonNull).toList();
+            chains.add(tables.stream().allMatch(CompactMessageTable.class::isInstance) ? tables.toArray(CompactMessageTable[]::new) : toTableArray(tables));
+        }
+        MessageCodeFilter filter = null;
+        if (codeFilterProbability >= 0.0D && !state.mapped) {
+            Set<String> codes = new HashSet<>();
+            chains.forEach(chain -> Arrays.stream(chain).forEach(table -> codes.addAll(table.keySet())));
+            filter = new MessageCodeFilter(codes, codeFilterProbability);
+        }
+        return new CompactMessageChain(chains, filter);
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private static Map<String, CompiledMessage>[] toTableArray(@Nonnull List<Map<String, CompiledMessage>> tables) {
+        return tables.toArray(Map[]::new);
+    }
+
+    /**
+     * Returns the candidate locales of the specified locale, in the order of precedence
+     * <p>
+     * Falls back to the default locale if there are no files for the specified locale, and ends with {@link java.util.Locale#ROOT}
+     *
+     * @param available the available locales of a base name
+     * @param locale the locale to look up
+     *
+     * @return the candidate locales of the specified locale
+     */
+    @Nonnull
+    protected List<Locale> getCandidateLocales(@Nonnull Set<Locale> available, @Nonnull Locale locale) {
+        List<Locale> result = new ArrayList<>(BUNDLE_CONTROL.getCandidateLocales(StringUtils.EMPTY, locale));
+        result.remove(Locale.ROOT);
+        Locale fallback = getDefaultLocale();
+        if (fallback != null && !Locale.ROOT.equals(locale) && !fallback.equals(locale) && result.stream().noneMatch(available::contains)) {
+            for (Locale candidate : BUNDLE_CONTROL.getCandidateLocales(StringUtils.EMPTY, fallback)) {
+                if (!Locale.ROOT.equals(candidate) && !result.contains(candidate)) {
+                    result.add(candidate);
+                }
+            }
+        }
+        result.add(Locale.ROOT);
+        return result;
+    }
+
+    /**
+     * Loads all the bundles, the elapsed time of each base name goes into the specified map, to notify the listeners after the bundles are published
+     */
+    @Nonnull
+    private Map<String, Map<Locale, Map<String, CompiledMessage>>> loadBundles(@Nullable Executor executor, @Nonnull Map<String, Long> elapsedTimes) {
+        Map<String, CompiledMessage> pool = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<Map<Locale, Map<String, CompiledMessage>>>> futures = new LinkedHashMap<>();
+        for (String baseName : getBasenameSet()) {
+            Supplier<Map<Locale, Map<String, CompiledMessage>>> task = () -> loadBundle(baseName, pool, elapsedTimes);
+            futures.put(baseName, (executor != null) ? CompletableFuture.supplyAsync(task, executor) : CompletableFuture.completedFuture(task.get()));
+        }
+        Map<String, Map<Locale, Map<String, CompiledMessage>>> result = new LinkedHashMap<>();
+        futures.forEach((baseName, future) -> result.put(baseName, future.join()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Nonnull
+    private Map<Locale, Map<String, CompiledMessage>> loadBundle(@Nonnull String baseName, @Nonnull Map<String, CompiledMessage> pool, @Nonnull Map<String, Long> elapsedTimes) {
+        long startTime = System.nanoTime();
+        Map<Locale, Map<String, CompiledMessage>> result = new LinkedHashMap<>();
+        for (Locale locale : getBundleLocales(baseName)) {
+            Map<String, CompiledMessage> entries = loadTimedBundleFile(baseName, locale, pool);
+            if (entries != null) {
+                result.put(locale, entries);
+            }
+        }
+        elapsedTimes.put(baseName, System.nanoTime() - startTime);
+        return compactBundle(result);
+    }
+
+    private void notifyReload(@Nonnull Map<String, Long> elapsedTimes) {
+        for (String baseName : getBasenameSet()) {
+            Long elapsed = elapsedTimes.get(baseName);
+            if (elapsed != null) {
+                reloadListeners.forEach(listener -> listener.onReload(baseName, elapsed));
+            }
+        }
+    }
+
+    /**
+     * Converts the bundle files of a base name to the storage type, sharing one key dictionary across all the locales
+     */
+    @Nonnull
+    private Map<Locale, Map<String, CompiledMessage>> compactBundle(@Nonnull Map<Locale, Map<String, CompiledMessage>> files) {
+        if (storageType == MessageStorageType.STANDARD || files.isEmpty() || files.values().stream().anyMatch(MappedMessageTable.class::isInstance)) {
+            return Collections.unmodifiableMap(files);
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        files.values().forEach(entries -> keys.addAll(entries.keySet()));
+        MessageKeyDictionary dictionary = new MessageKeyDictionary(keys);
+        Map<Locale, Map<String, CompiledMessage>> result = new LinkedHashMap<>(files.size());
+        files.forEach((locale, entries) -> result.put(locale, new CompactMessageTable(dictionary, entries, storageType == MessageStorageType.PACKED)));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Nonnull
+    private Set<Locale> getBundleLocales(@Nonnull String baseName) {
+        if (bundleLocales != null && !CollectionUtils.isEmpty(bundleLocales.get(baseName))) {
+            return bundleLocales.get(baseName);
+        }
+        String path = toResourcePath(baseName);
+        String directory = path.substring(0, path.lastIndexOf('/') + 1);
+        Set<Locale> result = new LinkedHashSet<>();
+        try {
+            ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(bundleClassLoader);
+            for (Resource resource : resolver.getResources(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + path + '*' + FILE_EXTENSION)) {
+                Map.Entry<String, Locale> bundle = MessageResourceDetectorUtils.parseBundlePath(directory + resource.getFilename());
+                if (bundle != null && StringUtils.equals(bundle.getKey(), path)) {
+                    result.add(bundle.getValue());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to discover message bundles of " + baseName, ex);
+        }
+        return result;
+    }
+
+    @Nullable
+    private Map<String, CompiledMessage> loadTimedBundleFile(@Nonnull String baseName, @Nonnull Locale locale, @Nonnull Map<String, CompiledMessage> pool) {
+        long startTime = System.nanoTime();
+        Map<String, CompiledMessage> result = loadBundleFile(baseName, locale, pool);
+        BundleKey key = new BundleKey(baseName, locale);
+        if (result != null) {
+            bundleLoads.put(key, new BundleLoad(System.currentTimeMillis(), System.nanoTime() - startTime));
+        } else {
+            bundleLoads.remove(key);
+        }
+        return result;
+    }
+
+    @Nullable
+    private Map<String, CompiledMessage> loadBundleFile(@Nonnull String baseName, @Nonnull Locale locale, @Nonnull Map<String, CompiledMessage> pool) {
+        if (bundleClassLoader == null) {
+            return null;
+        }
+        String bundleName = BUNDLE_CONTROL.toBundleName(toResourcePath(baseName), locale);
+        String fileName = bundleName + FILE_EXTENSION;
+        URL url = bundleClassLoader.getResource(fileName);
+        if (useBinary) {
+            String binaryName = bundleName + MessageResourceBinaryUtils.FILE_EXTENSION;
+            URL binaryUrl = bundleClassLoader.getResource(binaryName);
+            if (binaryUrl != null && watchResources) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Skipped binary bundle file " + binaryName + ", since the properties files are watched");
+                }
+            } else if (binaryUrl != null && url != null && getLastModified(url) > getLastModified(binaryUrl)) {
+                if (log.isWarnEnabled()) {
+                    log.warn("Skipped stale binary bundle file " + binaryName + ", since " + fileName + " is newer");
+                }
+            } else if (binaryUrl != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Read binary bundle file " + binaryName + " instead of " + fileName);
+                }
+                return new MappedMessageTable(MessageResourceBinaryUtils.readBinary(binaryUrl));
+            }
+        }
+        if (url == null) {
+            return null;
+        }
+        if (watchResources) {
+            watchBundleFile(url, fileName);
+        }
+        Properties properties = new Properties();
+        String encoding = getDefaultEncoding();
+        try (InputStream stream = url.openStream()) {
+            if (StringUtils.isBlank(encoding)) {
+                properties.load(stream);
+            } else {
+                try (Reader reader = new InputStreamReader(stream, Charset.forName(encoding))) {
+                    properties.load(reader);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to load message bundle file " + fileName, ex);
+        }
+        Map<String, CompiledMessage> result = new HashMap<>(properties.size());
+        for (String key : properties.stringPropertyNames()) {
+            result.put(intern(key, pool).text(), intern(properties.getProperty(key), pool));
+        }
+        return Map.copyOf(result);
+    }
+
+    private static long getLastModified(@Nonnull URL url) {
+        try {
+            return new UrlResource(url).lastModified();
+        } catch (IOException ignored) {
+            return 0L;
+        }
+    }
+
+    private void watchBundleFile(@Nonnull URL url, @Nonnull String fileName) {
+        if (!ResourceUtils.URL_PROTOCOL_FILE.equals(url.getProtocol())) {
+            return;
+        }
+        try {
+            Path directory = Paths.get(url.toURI()).getParent();
+            if (directory != null && !resourceWatcher.isWatching(directory)) {
+                watchedDirectories.put(directory, fileName.substring(0, fileName.lastIndexOf('/') + 1));
+                resourceWatcher.register(directory);
+            }
+        } catch (URISyntaxException | IOException ex) {
+            throw new IllegalStateException("Failed to watch message bundle file " + fileName, ex);
+        }
+    }
+
+    private void reloadBundleFile(@Nonnull Path file) {
+        String directory = (file.getParent() == null) ? null : watchedDirectories.get(file.getParent());
+        Map.Entry<String, Locale> bundle = (directory == null) ? null : MessageResourceDetectorUtils.parseBundlePath(directory + file.getFileName());
+        if (bundle == null) {
+            return;
+        }
+        for (String baseName : getBasenameSet()) {
+            if (StringUtils.equals(toResourcePath(baseName), bundle.getKey())) {
+                reloadBundleFile(baseName, bundle.getValue());
+            }
+        }
+    }
+
+    @Nonnull
+    private String toResourcePath(@Nonnull String baseName) {
+        return StringUtils.removeStart(baseName.replace('.', '/'), "/");
+    }
+
+    @Nonnull
+    private static CompiledMessage intern(@Nonnull String value, @Nonnull Map<String, CompiledMessage> pool) {
+        return pool.computeIfAbsent(value, CompiledMessage::of);
+    }
+
+
+    /**
+     * The loaded bundles with the tables and resolution caches compiled from them
+     * <p>
+     * A reload builds a new state and swaps it in whole, so that the tables and caches never mix the former bundles with the new ones
+     */
+    private final class CompiledState {
+        private final Map<String, Map<Locale, Map<String, CompiledMessage>>> bundles;
+        private final boolean mapped;
+        private final ConcurrentMap<Locale, Map<String, CompiledMessage>> tables = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Locale, Map<String, MessageOrigin>> origins = new ConcurrentHashMap<>();
+        private final MessageResolutionCache<CandidateKey, List<Locale>> candidateCache;
+        private final MessageResolutionCache<ResolutionKey, CompiledMessage> messageCache;
+
+        private CompiledState(@Nonnull Map<String, Map<Locale, Map<String, CompiledMessage>>> bundles) {
+            this.bundles = bundles;
+            this.mapped = bundles.values().stream().anyMatch(files -> files.values().stream().anyMatch(MappedMessageTable.class::isInstance));
+            this.candidateCache = new MessageResolutionCache<>(resolutionCacheSize, key -> List.copyOf(getCandidateLocales(key.available(), key.locale())));
+            this.messageCache = new MessageResolutionCache<>(resolutionCacheSize, key -> getTable(key.locale()).get(key.code()));
+        }
+
+        @Nonnull
+        private Map<String, CompiledMessage> getTable(@Nonnull Locale locale) {
+            Map<String, CompiledMessage> result = tables.get(locale);
+            return (result != null) ? result : tables.computeIfAbsent(locale, key -> compileTable(this, key));
+        }
+
+        @Nonnull
+        private Map<String, MessageOrigin> getOrigins(@Nonnull Locale locale) {
+            Map<String, MessageOrigin> result = origins.get(locale);
+            return (result != null) ? result : origins.computeIfAbsent(locale, key -> compileOrigins(this, key));
+        }
+
+        @Nonnull
+        private List<Locale> getCandidates(@Nonnull Set<Locale> available, @Nonnull Locale locale) {
+            List<Locale> result = candidateCache.get(new CandidateKey(available, locale));
+            return (result != null) ? result : Collections.emptyList();
+        }
+    }
+
+
+    /**
+     * Key of the cached candidate locales, which only depend on the available locales of a base name and the requested locale
+     */
+    private record CandidateKey(@Nonnull Set<Locale> available, @Nonnull Locale locale) {
+    }
+
+
+    /**
+     * Key of the cached resolutions of a code and locale
+     */
+    private record ResolutionKey(@Nonnull String code, @Nonnull Locale locale) {
+    }
+
+
+    /**
+     * Key of the load statistics of a bundle file
+     */
+    private record BundleKey(@Nonnull String baseName, @Nonnull Locale locale) {
+    }
+
+
+    /**
+     * The time when a bundle file was loaded, and the elapsed time of loading
+     */
+    private record BundleLoad(long loadedTime, long loadNanos) {
+    }
+}
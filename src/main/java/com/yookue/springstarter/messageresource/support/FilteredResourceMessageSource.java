@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.util.ClassUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceSizeUtils;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.context.support.ResourceBundleMessageSource} that rejects the missing codes by a filter of the known codes of each locale
+ * <p>
+ * Without the filter, a miss probes every base name along the fallback locales. The filters are rebuilt after the cache duration, if set.
+ * Without the cache duration, the loaded bundles and their message formats are kept by this class rather than the superclass, so that they could be described and evicted one by one;
+ * the evicted bundle files are loaded again by the JDK on next lookup, without clearing the bundles of other libraries that share the class loader
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessageCodeFilter
+ */
+@CommonsLog
+@SuppressWarnings("unused")
+public class FilteredResourceMessageSource extends ResourceBundleMessageSource implements MessageBundleInspectable, MessageHotKeyAware, MessagePreloadable {
+    private final ConcurrentMap<String, ConcurrentMap<Locale, BundleLoad>> bundleLoads = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Locale, MessageCodeFilter> codeFilters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Locale, Long> preloadedTimes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<Locale, Long>> evictedTimes = new ConcurrentHashMap<>();
+    private final EvictableControl control = new EvictableControl();
+    private volatile boolean controlUnsupported;
+    private volatile MessageHotKeyCache hotKeyCache;
+
+    /**
+     * The false positive probability of the filters of the known codes, an exact hash set will be used if zero, no filters if negative
+     */
+    @Setter
+    private double codeFilterProbability = 0.01D;
+
+    @Override
+    public void setHotKeyCache(@Nullable MessageHotKeyCache hotKeyCache) {
+        this.hotKeyCache = hotKeyCache;
+    }
+
+    @Override
+    public void preloadBundles(@Nonnull Collection<Locale> locales, @Nullable Executor executor) {
+        long preloadedTime = System.currentTimeMillis();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Locale locale : locales) {
+            for (String basename : getBasenameSet()) {
+                futures.add(MessageResourcePreloader.runAsync(() -> getResourceBundle(basename, locale), executor));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        if (codeFilterProbability >= 0.0D) {
+            locales.forEach(locale -> codeFilters.put(locale, createCodeFilter(locale)));
+        }
+        locales.forEach(locale -> preloadedTimes.put(locale, preloadedTime));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The preloaded bundles are considered fresh within the cache duration since the preloading started
+     */
+    @Override
+    public boolean isPreloaded(@Nonnull Locale locale) {
+        Long preloadedTime = preloadedTimes.get(locale);
+        return preloadedTime != null && (getCacheMillis() < 0 || System.currentTimeMillis() - preloadedTime < getCacheMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each resource bundle is reported once, with the codes that it resolves, including the ones of its parent bundles
+     */
+    @Override
+    @Nonnull
+    public List<MessageBundleStats> getBundleStats() {
+        List<MessageBundleStats> result = new ArrayList<>();
+        for (String basename : getBasenameSet()) {
+            Map<Locale, BundleLoad> loads = bundleLoads.get(basename);
+            if (loads == null) {
+                continue;
+            }
+            Map<ResourceBundle, BundleLoad> bundles = new IdentityHashMap<>();
+            loads.values().forEach(load -> bundles.putIfAbsent(load.bundle(), load));
+            bundles.forEach((bundle, load) -> {
+                Map<String, Object> entries = new HashMap<>();
+                bundle.keySet().forEach(key -> entries.put(key, bundle.getObject(key)));
+                result.add(new MessageBundleStats(basename, bundle.getLocale(), entries.size(), MessageResourceSizeUtils.estimateStrings(entries), load.loadedTime(), load.loadNanos()));
+            });
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Drops the loaded bundles whose fallback chains contain the matched bundle files, and marks the files to be loaded again by the JDK on next lookup
+     *
+     * @throws UnsupportedOperationException if the bundles are refreshed by the cache duration, or the JDK rejects the custom bundle control
+     */
+    @Override
+    public int evictBundles(@Nullable String baseName, @Nullable Locale locale) {
+        if (getCacheMillis() >= 0 || controlUnsupported) {
+            throw new UnsupportedOperationException("Bundles of " + getClass().getSimpleName() + " could not be evicted one by one, when they are refreshed by the cache duration or loaded without a bundle control");
+        }
+        int result = evictLoads(baseName, locale);
+        if (result > 0) {
+            MessageHotKeyCache cache = hotKeyCache;
+            if (cache != null) {
+                cache.invalidate();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops all the loaded bundles, code filters and pinned messages, the bundles will be loaded again on next lookup
+     */
+    public void clearCache() {
+        evictLoads(null, null);
+        codeFilters.clear();
+        preloadedTimes.clear();
+        MessageHotKeyCache cache = hotKeyCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Caches the bundles in this class if there is no cache duration, otherwise the superclass refreshes them after the cache duration
+     */
+    @Override
+    @Nullable
+    protected ResourceBundle getResourceBundle(@Nonnull String basename, @Nonnull Locale locale) {
+        if (getCacheMillis() >= 0) {
+            return super.getResourceBundle(basename, locale);
+        }
+        Map<Locale, BundleLoad> loads = bundleLoads.get(basename);
+        BundleLoad load = (loads == null) ? null : loads.get(locale);
+        if (load != null) {
+            return load.bundle();
+        }
+        try {
+            return doGetBundle(basename, locale);
+        } catch (MissingResourceException ex) {
+            log.warn("ResourceBundle [" + basename + "] not found for MessageSource: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Loads the bundles by a control that verifies the evicted bundle files, if there is no cache duration
+     */
+    @Override
+    @Nonnull
+    protected ResourceBundle doGetBundle(@Nonnull String basename, @Nonnull Locale locale) throws MissingResourceException {
+        long startTime = System.nanoTime();
+        ResourceBundle result = null;
+        if (getCacheMillis() < 0 && !controlUnsupported) {
+            ClassLoader loader = getBundleClassLoader();
+            try {
+                result = ResourceBundle.getBundle(basename, locale, (loader != null) ? loader : ClassUtils.getDefaultClassLoader(), control);
+            } catch (UnsupportedOperationException ex) {
+                controlUnsupported = true;
+                if (log.isWarnEnabled()) {
+                    log.warn("Bundle control is not supported, the bundles could not be evicted one by one: " + ex.getMessage());
+                }
+            }
+        }
+        if (result == null) {
+            result = super.doGetBundle(basename, locale);
+        }
+        ConcurrentMap<Locale, BundleLoad> loads = bundleLoads.computeIfAbsent(basename, key -> new ConcurrentHashMap<>());
+        BundleLoad load = loads.get(locale);
+        if (load == null || load.bundle() != result) {
+            loads.put(locale, new BundleLoad(result, System.currentTimeMillis(), System.nanoTime() - startTime, new ConcurrentHashMap<>()));
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Keeps the message formats with the loaded bundle in this class if there is no cache duration, so that they are released together on evictions
+     */
+    @Override
+    @Nullable
+    protected MessageFormat getMessageFormat(@Nonnull ResourceBundle bundle, @Nonnull String code, @Nonnull Locale locale) throws MissingResourceException {
+        Map<Locale, BundleLoad> loads = (getCacheMillis() < 0 && bundle.getBaseBundleName() != null) ? bundleLoads.get(bundle.getBaseBundleName()) : null;
+        BundleLoad load = (loads == null) ? null : loads.get(locale);
+        if (load == null || load.bundle() != bundle) {
+            return super.getMessageFormat(bundle, code, locale);
+        }
+        MessageFormat result = load.formats().get(code);
+        if (result != null) {
+            return result;
+        }
+        String message = getStringOrNull(bundle, code);
+        if (message == null) {
+            return null;
+        }
+        MessageFormat format = createMessageFormat(message, locale);
+        result = load.formats().putIfAbsent(code, format);
+        return (result != null) ? result : format;
+    }
+
+    @Override
+    @Nullable
+    protected String getMessageInternal(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale) {
+        MessageHotKeyCache cache = hotKeyCache;
+        return (cache == null) ? super.getMessageInternal(code, args, locale) : cache.getMessage(code, args, locale, super::getMessageInternal);
+    }
+
+    @Override
+    @Nullable
+    protected String resolveCodeWithoutArguments(@Nonnull String code, @Nonnull Locale locale) {
+        return mightContain(code, locale) ? super.resolveCodeWithoutArguments(code, locale) : null;
+    }
+
+    @Override
+    @Nullable
+    protected MessageFormat resolveCode(@Nonnull String code, @Nonnull Locale locale) {
+        return mightContain(code, locale) ? super.resolveCode(code, locale) : null;
+    }
+
+    private boolean mightContain(@Nonnull String code, @Nonnull Locale locale) {
+        if (codeFilterProbability < 0.0D) {
+            return true;
+        }
+        MessageCodeFilter filter = codeFilters.get(locale);
+        if (filter == null || filter.isExpired(getCacheMillis())) {
+            filter = createCodeFilter(locale);
+            codeFilters.put(locale, filter);
+        }
+        return filter.mightContain(code);
+    }
+
+    /**
+     * Drops the loaded bundles of the matched base names, whose fallback chains contain the specified locale, and marks their bundle files as evicted
+     *
+     * @return the count of the dropped bundles
+     */
+    private int evictLoads(@Nullable String baseName, @Nullable Locale locale) {
+        int result = 0;
+        long evictedTime = System.currentTimeMillis();
+        for (Map.Entry<String, ConcurrentMap<Locale, BundleLoad>> entry : bundleLoads.entrySet()) {
+            String basename = entry.getKey();
+            if (baseName != null && !baseName.equals(basename)) {
+                continue;
+            }
+            Map<ResourceBundle, Boolean> dropped = new IdentityHashMap<>();
+            ConcurrentMap<Locale, Long> times = evictedTimes.computeIfAbsent(basename, key -> new ConcurrentHashMap<>());
+            entry.getValue().forEach((requested, load) -> {
+                List<Locale> candidates = control.getCandidateLocales(basename, load.bundle().getLocale());
+                if (locale != null && !candidates.contains(locale)) {
+                    return;
+                }
+                if (locale == null) {
+                    candidates.forEach(candidate -> times.put(candidate, evictedTime));
+                }
+                entry.getValue().remove(requested, load);
+                codeFilters.remove(requested);
+                preloadedTimes.remove(requested);
+                dropped.put(load.bundle(), Boolean.TRUE);
+            });
+            if (locale != null && !dropped.isEmpty()) {
+                times.put(locale, evictedTime);
+            }
+            result += dropped.size();
+        }
+        return result;
+    }
+
+    @Nonnull
+    private MessageCodeFilter createCodeFilter(@Nonnull Locale locale) {
+        Set<String> codes = new HashSet<>();
+        for (String basename : getBasenameSet()) {
+            ResourceBundle bundle = getResourceBundle(basename, locale);
+            if (bundle != null) {
+                codes.addAll(bundle.keySet());
+            }
+        }
+        return new MessageCodeFilter(codes, codeFilterProbability);
+    }
+
+
+    /**
+     * The loaded resource bundle, with the time when it was loaded, the elapsed time of loading, and the message formats of the bundle
+     */
+    private record BundleLoad(@Nonnull ResourceBundle bundle, long loadedTime, long loadNanos, @Nonnull ConcurrentMap<String, MessageFormat> formats) {
+    }
+
+
+    /**
+     * Bundle control that reads the properties files by the default encoding, like the one of the superclass,
+     * and verifies the cached bundle files of the JDK on each load, reloading only the evicted ones
+     */
+    private class EvictableControl extends ResourceBundle.Control {
+        @Override
+        @Nullable
+        public ResourceBundle newBundle(@Nonnull String baseName, @Nonnull Locale locale, @Nonnull String format, @Nonnull ClassLoader loader, boolean reload) throws IllegalAccessException, InstantiationException, IOException {
+            if (!format.equals("java.properties")) {    // $NON-NLS-1$
+                return super.newBundle(baseName, locale, format, loader, reload);
+            }
+            String resourceName = toResourceName(toBundleName(baseName, locale), "properties");    // $NON-NLS-1$
+            InputStream stream = null;
+            if (reload) {
+                URL url = loader.getResource(resourceName);
+                if (url != null) {
+                    URLConnection connection = url.openConnection();
+                    connection.setUseCaches(false);
+                    stream = connection.getInputStream();
+                }
+            } else {
+                stream = loader.getResourceAsStream(resourceName);
+            }
+            if (stream == null) {
+                return null;
+            }
+            String encoding = getDefaultEncoding();
+            if (encoding == null) {
+                try (InputStream bundleStream = stream) {
+                    return loadBundle(bundleStream);
+                }
+            }
+            try (InputStreamReader bundleReader = new InputStreamReader(stream, encoding)) {
+                return loadBundle(bundleReader);
+            }
+        }
+
+        @Override
+        @Nullable
+        public Locale getFallbackLocale(@Nonnull String baseName, @Nonnull Locale locale) {
+            Locale defaultLocale = getDefaultLocale();
+            return (defaultLocale != null && !defaultLocale.equals(locale)) ? defaultLocale : null;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Expires immediately, so that the JDK asks {@link #needsReload} for each cached bundle file when a bundle is loaded by this class
+         */
+        @Override
+        public long getTimeToLive(@Nonnull String baseName, @Nonnull Locale locale) {
+            return 0L;
+        }
+
+        @Override
+        public boolean needsReload(@Nonnull String baseName, @Nonnull Locale locale, @Nonnull String format, @Nonnull ClassLoader loader, @Nonnull ResourceBundle bundle, long loadTime) {
+            Map<Locale, Long> times = evictedTimes.get(baseName);
+            Long evictedTime = (times == null) ? null : times.get(locale);
+            return evictedTime != null && loadTime <= evictedTime;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import com.yookue.springstarter.messageresource.util.MessageResourceBinaryUtils;
+
+
+/**
+ * Immutable messages of a binary bundle file, resolved by binary search over the sorted keys
+ * <p>
+ * The content is usually memory mapped, only the requested values are decoded on heap
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.util.MessageResourceBinaryUtils
+ */
+@SuppressWarnings("unused")
+public class MappedMessageTable extends AbstractMap<String, CompiledMessage> {
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int valueOffsets;
+
+    public MappedMessageTable(@Nonnull ByteBuffer buffer) {
+        if (buffer.limit() < MessageResourceBinaryUtils.HEADER_SIZE || buffer.getInt(0) != MessageResourceBinaryUtils.MAGIC || buffer.getInt(4) != MessageResourceBinaryUtils.VERSION) {
+            throw new IllegalArgumentException("Invalid message bundle binary, unexpected magic or version");
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.valueOffsets = MessageResourceBinaryUtils.HEADER_SIZE + (size + 1) * 4;
+    }
+
+    @Override
+    @Nullable
+    public CompiledMessage get(@Nullable Object key) {
+        int index = indexOf(key);
+        return (index < 0) ? null : CompiledMessage.of(decode(valueOffsets, index));
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the size of the binary file, which is off heap if memory mapped
+     */
+    public long getEstimatedBytes() {
+        return buffer.capacity();
+    }
+
+    @Override
+    @Nonnull
+    public Set<String> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            @Nonnull
+            public Iterator<String> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    @Nonnull
+                    public String next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return decode(MessageResourceBinaryUtils.HEADER_SIZE, next++);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(@Nullable Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    @Nonnull
+    public Set<Entry<String, CompiledMessage>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            @Nonnull
+            public Iterator<Entry<String, CompiledMessage>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    @Nonnull
+                    public Entry<String, CompiledMessage> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(decode(MessageResourceBinaryUtils.HEADER_SIZE, index), CompiledMessage.of(decode(valueOffsets, index)));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int indexOf(@Nullable Object key) {
+        if (!(key instanceof String code)) {
+            return -1;
+        }
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = MessageResourceBinaryUtils.HEADER_SIZE + middle * 4;
+            int compared = compareKey(code, buffer.getInt(offset), buffer.getInt(offset + 4));
+            if (compared == 0) {
+                return middle;
+            }
+            if (compared > 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the code with the UTF-8 key between the specified positions, by code point
+     */
+    private int compareKey(@Nonnull String code, int start, int end) {
+        int i = 0, position = start;
+        while (i < code.length() && position < end) {
+            int left = code.codePointAt(i);
+            int first = buffer.get(position) & 0xFF, right;
+            if (first < 0x80) {
+                right = first;
+                position += 1;
+            } else if (first < 0xE0) {
+                right = ((first & 0x1F) << 6) | (buffer.get(position + 1) & 0x3F);
+                position += 2;
+            } else if (first < 0xF0) {
+                right = ((first & 0x0F) << 12) | ((buffer.get(position + 1) & 0x3F) << 6) | (buffer.get(position + 2) & 0x3F);
+                position += 3;
+            } else {
+                right = ((first & 0x07) << 18) | ((buffer.get(position + 1) & 0x3F) << 12) | ((buffer.get(position + 2) & 0x3F) << 6) | (buffer.get(position + 3) & 0x3F);
+                position += 4;
+            }
+            if (left != right) {
+                return Integer.compare(left, right);
+            }
+            i += Character.charCount(left);
+        }
+        return Boolean.compare(i < code.length(), position < end);
+    }
+
+    @Nonnull
+    private String decode(int offsets, int index) {
+        int start = buffer.getInt(offsets + index * 4), end = buffer.getInt(offsets + index * 4 + 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Message source that could describe its loaded bundles and caches, and evict the bundles of a base name or locale
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.endpoint.MessageResourceEndpoint
+ */
+public interface MessageBundleInspectable {
+    /**
+     * Returns the statistics of each loaded bundle file
+     *
+     * @return the statistics of each loaded bundle file
+     */
+    @Nonnull
+    List<MessageBundleStats> getBundleStats();
+
+    /**
+     * Returns the statistics of the caches, keyed by the cache name
+     *
+     * @return the statistics of the caches, keyed by the cache name
+     */
+    @Nonnull
+    default Map<String, MessageCacheStats> getCacheStats() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Evicts the loaded bundle files of the specified base name and locale, so that they are reloaded, eagerly or on next lookup depending on the message source
+     * <p>
+     * The caches of resolutions that may depend on the evicted files are dropped as well
+     *
+     * @param baseName the base name of the bundles, or {@code null} for all the base names
+     * @param locale the locale of the bundle files, or {@code null} for all the locales, the default file is represented as {@link java.util.Locale#ROOT}
+     *
+     * @return the count of the evicted bundle files
+     *
+     * @throws UnsupportedOperationException if the bundles could not be evicted, such as the decorated message source is not inspectable
+     */
+    int evictBundles(@Nullable String baseName, @Nullable Locale locale);
+}
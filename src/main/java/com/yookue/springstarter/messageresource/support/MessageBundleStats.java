@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Locale;
+import jakarta.annotation.Nonnull;
+
+
+/**
+ * Statistics of a loaded bundle file
+ *
+ * @param baseName the base name of the bundle
+ * @param locale the locale of the bundle file, the default file is represented as {@link java.util.Locale#ROOT}
+ * @param keyCount the count of the message codes
+ * @param estimatedBytes the estimated heap size of the messages, or the size of the binary file if memory mapped
+ * @param loadedTime the time in milliseconds when the file was loaded, zero if unknown
+ * @param loadNanos the elapsed time in nanoseconds of loading the file, zero if unknown
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.util.MessageResourceSizeUtils
+ */
+public record MessageBundleStats(@Nonnull String baseName, @Nonnull Locale locale, int keyCount, long estimatedBytes, long loadedTime, long loadNanos) {
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import jakarta.annotation.Nonnull;
+
+
+/**
+ * Statistics of a bounded cache
+ *
+ * @param size the count of the cached entries
+ * @param capacity the maximum count of the cached entries, zero means no caching
+ * @param hitCount the count of the lookups that hit the cache
+ * @param missCount the count of the lookups that missed the cache
+ *
+ * @author David Hsing
+ */
+public record MessageCacheStats(int size, int capacity, long hitCount, long missCount) {
+    @Nonnull
+    public static MessageCacheStats of(@Nonnull MessageFormatCache cache) {
+        return new MessageCacheStats(cache.getSize(), cache.getCapacity(), cache.getHitCount(), cache.getMissCount());
+    }
+
+    @Nonnull
+    public static MessageCacheStats of(@Nonnull MessageResolutionCache<?, ?> cache) {
+        return new MessageCacheStats(cache.getSize(), cache.getCapacity(), cache.getHitCount(), cache.getMissCount());
+    }
+}
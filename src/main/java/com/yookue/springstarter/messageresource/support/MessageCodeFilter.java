@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Collection;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+
+
+/**
+ * Immutable filter of the known message codes of a locale, for rejecting the missing codes without probing any bundles
+ * <p>
+ * It is a Bloom filter with the specified false positive probability, or an exact hash set if the probability is not positive.
+ * There are never false negatives, so that a rejected code is always missing
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+public final class MessageCodeFilter {
+    private final Set<String> codes;
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    @Getter
+    private final long createdTime = System.currentTimeMillis();
+
+    /**
+     * Constructs a new filter
+     *
+     * @param codes the known codes
+     * @param probability the false positive probability, an exact hash set will be used if not positive
+     */
+    public MessageCodeFilter(@Nonnull Collection<String> codes, double probability) {
+        if (probability <= 0.0D) {
+            this.codes = Set.copyOf(codes);
+            this.bits = null;
+            this.bitCount = 0;
+            this.hashCount = 0;
+            return;
+        }
+        double rate = Math.min(probability, 0.5D);
+        int expected = Math.max(codes.size(), 1);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(rate) / (Math.log(2.0D) * Math.log(2.0D)));
+        this.codes = null;
+        this.bitCount = (int) Math.min(Math.max(optimalBits, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.bits = new long[(bitCount + Long.SIZE - 1) / Long.SIZE];
+        this.hashCount = Math.max((int) Math.round((double) bitCount / expected * Math.log(2.0D)), 1);
+        for (String code : codes) {
+            long hash = mix(code.hashCode());
+            int first = (int) hash, second = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                int index = Math.floorMod(first + i * second, bitCount);
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the specified code might be known
+     *
+     * @param code the code to look up
+     *
+     * @return {@code false} if the specified code is definitely missing
+     */
+    public boolean mightContain(@Nullable Object code) {
+        if (!(code instanceof String)) {
+            return false;
+        }
+        if (codes != null) {
+            return codes.contains(code);
+        }
+        long hash = mix(code.hashCode());
+        int first = (int) hash, second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int index = Math.floorMod(first + i * second, bitCount);
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether this filter was created before the specified cache duration
+     *
+     * @param cacheMillis the cache duration in milliseconds, negative means caching forever
+     *
+     * @return whether this filter was created before the specified cache duration
+     */
+    public boolean isExpired(long cacheMillis) {
+        return cacheMillis >= 0L && System.currentTimeMillis() - createdTime > cacheMillis;
+    }
+
+    /**
+     * Spreads the 32-bit hash code to 64 bits, for deriving the hash functions by double hashing
+     */
+    private static long mix(int hash) {
+        long result = hash * 0x9E3779B97F4A7C15L;
+        result ^= result >>> 32;
+        result *= 0xBF58476D1CE4E5B9L;
+        return result ^ (result >>> 29);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import jakarta.annotation.Nonnull;
+import org.springframework.util.ConcurrentLruCache;
+
+
+/**
+ * Bounded cache of parsed {@link java.text.MessageFormat} templates, keyed by code and locale
+ * <p>
+ * The cached templates are never shared with callers, each lookup returns a clone of the template,
+ * so that formatting with arguments does not need a shared lock
+ *
+ * @author David Hsing
+ * @see org.springframework.util.ConcurrentLruCache
+ */
+@SuppressWarnings("unused")
+public class MessageFormatCache {
+    private final int capacity;
+    private final BiFunction<String, Locale, MessageFormat> creator;
+    private final ConcurrentLruCache<MessageFormatKey, MessageFormat> templates;
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Constructs a new cache
+     *
+     * @param capacity the maximum count of templates, zero means no caching
+     * @param creator the function to parse a message into a template
+     */
+    public MessageFormatCache(int capacity, @Nonnull BiFunction<String, Locale, MessageFormat> creator) {
+        this.capacity = Math.max(capacity, 0);
+        this.creator = creator;
+        this.templates = new ConcurrentLruCache<>(this.capacity, this::createTemplate);
+    }
+
+    /**
+     * Returns a message format for the specified message, which is exclusive to the caller
+     *
+     * @param code the message code
+     * @param locale the message locale
+     * @param message the resolved message of the code and locale
+     *
+     * @return a message format for the specified message
+     */
+    @Nonnull
+    public MessageFormat getMessageFormat(@Nonnull String code, @Nonnull Locale locale, @Nonnull String message) {
+        requestCount.increment();
+        if (capacity == 0) {
+            missCount.increment();
+            return creator.apply(message, locale);
+        }
+        return (MessageFormat) templates.get(new MessageFormatKey(code, locale, message)).clone();
+    }
+
+    public void clear() {
+        templates.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        return templates.size();
+    }
+
+    public long getHitCount() {
+        return Math.max(requestCount.sum() - missCount.sum(), 0L);
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Nonnull
+    private MessageFormat createTemplate(@Nonnull MessageFormatKey key) {
+        missCount.increment();
+        return creator.apply(key.message(), key.locale());
+    }
+
+
+    /**
+     * Key of the cached templates, the message is part of the key, so that a reloaded message never hits a stale template
+     */
+    private record MessageFormatKey(@Nonnull String code, @Nonnull Locale locale, @Nonnull String message) {
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Message source that could pin the resolved messages of the hottest codes in a {@link com.yookue.springstarter.messageresource.support.MessageHotKeyCache}
+ *
+ * @author David Hsing
+ */
+public interface MessageHotKeyAware {
+    /**
+     * Sets the cache of the hottest codes
+     *
+     * @param hotKeyCache the cache of the hottest codes, or {@code null} for no pinning
+     */
+    void setHotKeyCache(@Nullable MessageHotKeyCache hotKeyCache);
+}
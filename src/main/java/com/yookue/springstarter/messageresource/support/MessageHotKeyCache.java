@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.ArrayUtils;
+import lombok.Getter;
+
+
+/**
+ * Cache that pins the resolved messages of the hottest codes without arguments, in front of the normal lookups
+ * <p>
+ * One of every {@code sampleRate} lookups is counted by a count-min sketch, whose counters are halved periodically so that the frequencies age.
+ * The top {@code capacity} sampled codes and locales are pinned in an immutable open addressing array, which is looked up without locks and replaced by compare-and-set on changes.
+ * Once the cache is full, a sampled code is admitted only if it is hotter than the admission threshold, the frequency of the coldest pinned code,
+ * so that the long tail of cold codes returns before building anything.
+ * The pinned messages are verified again when the bundles are reloaded, each of them is resolved once on its next lookup and replaced only if changed,
+ * and the pinned messages are resolved again after the expiration if set
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessageHotKeyAware
+ */
+@SuppressWarnings("unused")
+public class MessageHotKeyCache {
+    public static final int DEFAULT_CAPACITY = 64;
+    public static final int DEFAULT_SAMPLE_RATE = 8;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH_FACTOR = 16;
+    private static final int MIN_SKETCH_WIDTH = 1024;
+    private static final int RESET_FACTOR = 10;
+    private static final PinnedState EMPTY_STATE = new PinnedState(new PinnedMessage[0], new PinnedMessage[0], 0);
+
+    @Getter
+    private final int capacity;
+
+    @Getter
+    private final int sampleRate;
+
+    @Getter
+    private final long expireMillis;
+
+    private final AtomicIntegerArray sketch;
+    private final int sketchMask;
+    private final long resetSamples;
+    private final AtomicLong sampleCount = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<PinnedState> pinnedState = new AtomicReference<>(EMPTY_STATE);
+
+    public MessageHotKeyCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_SAMPLE_RATE, -1L);
+    }
+
+    /**
+     * Constructs a cache
+     *
+     * @param capacity the maximum count of the pinned messages
+     * @param sampleRate the rate of the sampled lookups, one of every {@code sampleRate} lookups is counted, rounded up to a power of two
+     * @param expireMillis the expiration of the pinned messages in milliseconds, never expire if negative
+     */
+    public MessageHotKeyCache(int capacity, int sampleRate, long expireMillis) {
+        this.capacity = Math.max(capacity, 1);
+        this.sampleRate = ceilingPowerOfTwo(Math.max(sampleRate, 1));
+        this.expireMillis = expireMillis;
+        int width = ceilingPowerOfTwo(Math.max(this.capacity * SKETCH_WIDTH_FACTOR, MIN_SKETCH_WIDTH));
+        this.sketch = new AtomicIntegerArray(width * SKETCH_DEPTH);
+        this.sketchMask = width - 1;
+        this.resetSamples = (long) width * RESET_FACTOR;
+    }
+
+    /**
+     * Returns the pinned message, or resolves by the specified loader and samples the lookup
+     *
+     * @param code the code to look up
+     * @param args the arguments of the message, only the lookups without arguments are pinned
+     * @param locale the locale to look up
+     * @param loader the normal lookup
+     *
+     * @return the resolved message, or {@code null} if not found
+     */
+    @Nullable
+    public String getMessage(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale, @Nonnull MessageLoader loader) {
+        if (code == null || locale == null || ArrayUtils.isNotEmpty(args)) {
+            return loader.load(code, args, locale);
+        }
+        int hash = keyHash(code, locale);
+        boolean sampled = (ThreadLocalRandom.current().nextInt() & (sampleRate - 1)) == 0;
+        long current = generation.get();
+        PinnedMessage pinned = pinnedState.get().find(hash, code, locale);
+        if (pinned != null) {
+            if (sampled) {
+                countSample(hash);
+            }
+            boolean expired = expireMillis >= 0L && System.currentTimeMillis() - pinned.pinnedTime >= expireMillis;
+            if (!expired && pinned.verifiedGeneration == current) {
+                return pinned.message;
+            }
+            String result = loader.load(code, args, locale);
+            verifyPinned(pinned, result, current, expired);
+            return result;
+        }
+        String result = loader.load(code, args, locale);
+        if (result != null && sampled) {
+            recordSample(hash, code, result, locale, current);
+        }
+        return result;
+    }
+
+    /**
+     * Marks all the pinned messages to be verified, each of them is resolved again on its next lookup, and kept if not changed
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Drops all the pinned messages, the sampled frequencies are kept so that the hottest codes are pinned again soon
+     */
+    public void clear() {
+        pinnedState.set(EMPTY_STATE);
+    }
+
+    /**
+     * Returns the pinned codes and locales, in the descending order of the estimated frequencies
+     *
+     * @return the pinned codes and locales
+     */
+    @Nonnull
+    public List<HotKeyStats> getHotKeys() {
+        PinnedMessage[] entries = pinnedState.get().entries;
+        List<HotKeyStats> result = new ArrayList<>(entries.length);
+        for (PinnedMessage entry : entries) {
+            result.add(new HotKeyStats(entry.code, entry.locale, estimate(keyHash(entry.code, entry.locale)) * (long) sampleRate));
+        }
+        result.sort(Comparator.comparingLong(HotKeyStats::frequency).reversed());
+        return result;
+    }
+
+    private int countSample(int hash) {
+        int result = increment(hash);
+        if (sampleCount.incrementAndGet() % resetSamples == 0L) {
+            halveCounters();
+        }
+        return result;
+    }
+
+    /**
+     * Keeps the pinned message if the resolved message is not changed and not expired, otherwise replaces or drops it
+     */
+    private void verifyPinned(@Nonnull PinnedMessage pinned, @Nullable String message, long current, boolean expired) {
+        if (!expired && pinned.message.equals(message)) {
+            pinned.verifiedGeneration = current;
+            return;
+        }
+        PinnedMessage replacement = (message == null) ? null : new PinnedMessage(pinned.code, pinned.locale, message, System.currentTimeMillis(), current);
+        for (;;) {
+            PinnedState state = pinnedState.get();
+            int index = state.indexOf(pinned);
+            if (index < 0) {
+                return;
+            }
+            PinnedMessage[] entries;
+            if (replacement == null) {
+                entries = ArrayUtils.remove(state.entries, index);
+            } else {
+                entries = state.entries.clone();
+                entries[index] = replacement;
+            }
+            if (pinnedState.compareAndSet(state, newState(entries))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Admits the sampled code if it is hotter than the coldest pinned code, without any locks
+     * <p>
+     * The admission threshold is read before building anything, so that the cold codes return immediately;
+     * the frequencies of the pinned codes are estimated again only when a code passes the threshold
+     */
+    private void recordSample(int hash, @Nonnull String code, @Nonnull String message, @Nonnull Locale locale, long current) {
+        int frequency = countSample(hash);
+        for (;;) {
+            PinnedState state = pinnedState.get();
+            if (frequency <= state.threshold || state.find(hash, code, locale) != null) {
+                return;
+            }
+            PinnedMessage[] entries = state.entries;
+            PinnedMessage[] admitted;
+            if (entries.length < capacity) {
+                admitted = ArrayUtils.add(entries, new PinnedMessage(code, locale, message, System.currentTimeMillis(), current));
+            } else {
+                int coldest = 0;
+                int coldestFrequency = Integer.MAX_VALUE;
+                for (int i = 0; i < entries.length; i++) {
+                    int elementFrequency = estimate(keyHash(entries[i].code, entries[i].locale));
+                    if (elementFrequency < coldestFrequency) {
+                        coldest = i;
+                        coldestFrequency = elementFrequency;
+                    }
+                }
+                if (frequency <= coldestFrequency) {
+                    // The pinned codes became hotter since the threshold was taken, raise it for the next samples
+                    if (pinnedState.compareAndSet(state, state.withThreshold(coldestFrequency))) {
+                        return;
+                    }
+                    continue;
+                }
+                admitted = entries.clone();
+                admitted[coldest] = new PinnedMessage(code, locale, message, System.currentTimeMillis(), current);
+            }
+            if (pinnedState.compareAndSet(state, newState(admitted))) {
+                return;
+            }
+        }
+    }
+
+    @Nonnull
+    private PinnedState newState(@Nonnull PinnedMessage[] entries) {
+        PinnedMessage[] table = new PinnedMessage[ceilingPowerOfTwo(entries.length * 2)];
+        int mask = table.length - 1;
+        int threshold = (entries.length < capacity) ? 0 : Integer.MAX_VALUE;
+        for (PinnedMessage entry : entries) {
+            int hash = keyHash(entry.code, entry.locale);
+            int index = hash & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = entry;
+            if (threshold > 0) {
+                threshold = Math.min(threshold, estimate(hash));
+            }
+        }
+        return new PinnedState(table, entries, threshold);
+    }
+
+    private int increment(int hash) {
+        int result = Integer.MAX_VALUE;
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            int index = sketchIndex(hash, i);
+            int count = sketch.get(index);
+            if (count < Integer.MAX_VALUE) {
+                count = sketch.incrementAndGet(index);
+            }
+            result = Math.min(result, count);
+        }
+        return result;
+    }
+
+    private int estimate(int hash) {
+        int result = Integer.MAX_VALUE;
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            result = Math.min(result, sketch.get(sketchIndex(hash, i)));
+        }
+        return result;
+    }
+
+    /**
+     * Halves the counters and the admission threshold together, so that the aged frequencies are still comparable with the threshold
+     */
+    private void halveCounters() {
+        for (int i = 0; i < sketch.length(); i++) {
+            sketch.set(i, sketch.get(i) >>> 1);
+        }
+        pinnedState.updateAndGet(state -> state.withThreshold(state.threshold >>> 1));
+    }
+
+    private int sketchIndex(int hash, int row) {
+        int mixed = spread(hash + row * 0x9E3779B9);
+        return row * (sketchMask + 1) + (mixed & sketchMask);
+    }
+
+    private static int keyHash(@Nonnull String code, @Nonnull Locale locale) {
+        return spread(code.hashCode() * 31 + locale.hashCode());
+    }
+
+    private static int spread(int hash) {
+        int result = hash * 0x85EBCA6B;
+        result ^= result >>> 13;
+        result *= 0xC2B2AE35;
+        return result ^ (result >>> 16);
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return (value <= 1) ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+
+    /**
+     * Normal lookup of a message, such as {@link org.springframework.context.support.AbstractMessageSource#getMessageInternal}
+     */
+    @FunctionalInterface
+    public interface MessageLoader {
+        @Nullable
+        String load(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale);
+    }
+
+
+    /**
+     * Pinned code and locale, with the estimated frequency of the lookups
+     */
+    public record HotKeyStats(@Nonnull String code, @Nonnull Locale locale, long frequency) {
+    }
+
+
+    /**
+     * Immutable pinned messages, with the open addressing table for lookups and the admission threshold
+     * <p>
+     * The threshold is the estimated frequency of the coldest pinned code when the cache is full, or zero to admit any code
+     */
+    private static final class PinnedState {
+        private final PinnedMessage[] table;
+        private final PinnedMessage[] entries;
+        private final int threshold;
+
+        private PinnedState(@Nonnull PinnedMessage[] table, @Nonnull PinnedMessage[] entries, int threshold) {
+            this.table = table;
+            this.entries = entries;
+            this.threshold = threshold;
+        }
+
+        @Nullable
+        private PinnedMessage find(int hash, @Nonnull String code, @Nonnull Locale locale) {
+            if (table.length == 0) {
+                return null;
+            }
+            int mask = table.length - 1;
+            for (int index = hash & mask; ; index = (index + 1) & mask) {
+                PinnedMessage pinned = table[index];
+                if (pinned == null) {
+                    return null;
+                }
+                if (pinned.code.equals(code) && pinned.locale.equals(locale)) {
+                    return pinned;
+                }
+            }
+        }
+
+        private int indexOf(@Nonnull PinnedMessage pinned) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i] == pinned) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Nonnull
+        private PinnedState withThreshold(int value) {
+            return (value == threshold) ? this : new PinnedState(table, entries, value);
+        }
+    }
+
+
+    /**
+     * Pinned message, with the generation of the bundles that it was last verified against
+     */
+    private static final class PinnedMessage {
+        private final String code;
+        private final Locale locale;
+        private final String message;
+        private final long pinnedTime;
+        private volatile long verifiedGeneration;
+
+        private PinnedMessage(@Nonnull String code, @Nonnull Locale locale, @Nonnull String message, long pinnedTime, long verifiedGeneration) {
+            this.code = code;
+            this.locale = locale;
+            this.message = message;
+            this.pinnedTime = pinnedTime;
+            this.verifiedGeneration = verifiedGeneration;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Immutable dictionary that maps message codes to dense int ids
+ * <p>
+ * The ids are indexes of an open addressing table, so that each code costs a reference and two ints, instead of a hash table entry
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.CompactMessageTable
+ */
+@SuppressWarnings("unused")
+public final class MessageKeyDictionary {
+    private final String[] keys;
+    private final int[] slots;
+    private final int mask;
+
+    public MessageKeyDictionary(@Nonnull Collection<String> keys) {
+        this.keys = new LinkedHashSet<>(keys).toArray(String[]::new);
+        int capacity = Integer.highestOneBit(Math.max(this.keys.length, 1) * 2 - 1) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (int id = 0; id < this.keys.length; id++) {
+            int index = spread(this.keys[id].hashCode()) & mask;
+            while (slots[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            slots[index] = id + 1;
+        }
+    }
+
+    /**
+     * Returns the id of the specified code
+     *
+     * @param key the code to look up
+     *
+     * @return the id of the specified code, or {@code -1} if absent
+     */
+    public int indexOf(@Nullable Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int index = spread(key.hashCode()) & mask;
+        int slot;
+        while ((slot = slots[index]) != 0) {
+            if (keys[slot - 1].equals(key)) {
+                return slot - 1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Nonnull
+    public String keyAt(int id) {
+        return keys[id];
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
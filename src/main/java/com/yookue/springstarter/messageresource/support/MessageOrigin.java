@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Locale;
+import jakarta.annotation.Nonnull;
+
+
+/**
+ * The bundle file that a message code resolves from
+ *
+ * @param baseName the base name of the bundle
+ * @param locale the locale of the bundle file, the default file is represented as {@link java.util.Locale#ROOT}
+ * @param fallback whether the bundle file is on the fallback chain of the default locale, rather than the requested locale
+ *
+ * @author David Hsing
+ */
+public record MessageOrigin(@Nonnull String baseName, @Nonnull Locale locale, boolean fallback) {
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Locale;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Message source that could tell which bundle file a message code resolves from
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessageOrigin
+ */
+public interface MessageOriginResolver {
+    /**
+     * Returns the bundle file that the specified code resolves from
+     *
+     * @param code the message code
+     * @param locale the requested locale
+     *
+     * @return the bundle file that the specified code resolves from, or {@code null} if the code could not be resolved
+     */
+    @Nullable
+    MessageOrigin resolveOrigin(@Nonnull String code, @Nonnull Locale locale);
+}
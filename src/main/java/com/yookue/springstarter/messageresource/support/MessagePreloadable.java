@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Message source that could load and parse its bundles ahead of the first lookup
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessageResourcePreloader
+ */
+public interface MessagePreloadable {
+    /**
+     * Loads the bundles of all the base names, and prepares the lookups of the specified locales
+     *
+     * @param locales the locales to prepare
+     * @param executor the executor to load the bundles in parallel, or {@code null} to load in the calling thread
+     */
+    void preloadBundles(@Nonnull Collection<Locale> locales, @Nullable Executor executor);
+
+    /**
+     * Returns whether the lookups of the specified locale are served from memory, without loading or reloading any bundles
+     *
+     * @param locale the locale to check
+     *
+     * @return whether the lookups of the specified locale are served from memory
+     */
+    default boolean isPreloaded(@Nonnull Locale locale) {
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import jakarta.annotation.Nonnull;
+
+
+/**
+ * Listener for the bundle file loading and reloading of message sources
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessageReloadObservable
+ */
+@FunctionalInterface
+public interface MessageReloadListener {
+    /**
+     * Invoked after a bundle resource has been loaded or refreshed
+     *
+     * @param resource the base name or file name of the bundle
+     * @param nanos the elapsed time in nanoseconds
+     */
+    void onReload(@Nonnull String resource, long nanos);
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.util.ConcurrentLruCache;
+
+
+/**
+ * Bounded cache of message resolutions, such as the candidate locales of a locale, or the bundle file that a code resolves from
+ * <p>
+ * Negative results are cached as well, so that repeated lookups of missing codes skip the probes
+ *
+ * @author David Hsing
+ * @see org.springframework.util.ConcurrentLruCache
+ */
+@SuppressWarnings("unused")
+public class MessageResolutionCache<K, V> {
+    private final int capacity;
+    private final Function<K, V> resolver;
+    private final ConcurrentLruCache<K, Optional<V>> resolutions;
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Constructs a new cache
+     *
+     * @param capacity the maximum count of resolutions, zero means no caching
+     * @param resolver the function to resolve a key, which may return {@code null}
+     */
+    public MessageResolutionCache(int capacity, @Nonnull Function<K, V> resolver) {
+        this.capacity = Math.max(capacity, 0);
+        this.resolver = resolver;
+        this.resolutions = new ConcurrentLruCache<>(this.capacity, this::resolve);
+    }
+
+    @Nullable
+    public V get(@Nonnull K key) {
+        requestCount.increment();
+        if (capacity == 0) {
+            missCount.increment();
+            return resolver.apply(key);
+        }
+        return resolutions.get(key).orElse(null);
+    }
+
+    public void remove(@Nonnull K key) {
+        resolutions.remove(key);
+    }
+
+    public void clear() {
+        resolutions.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        return resolutions.size();
+    }
+
+    public long getHitCount() {
+        return Math.max(requestCount.sum() - missCount.sum(), 0L);
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Nonnull
+    private Optional<V> resolve(@Nonnull K key) {
+        missCount.increment();
+        return Optional.ofNullable(resolver.apply(key));
+    }
+}
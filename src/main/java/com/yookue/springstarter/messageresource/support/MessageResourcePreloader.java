@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.MessageSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.CollectionUtils;
+import com.yookue.springstarter.messageresource.config.MessageResourceAutoConfiguration;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * Preloader for loading the message bundles in parallel during context refresh, before the application reports readiness
+ * <p>
+ * The loading threads are virtual threads on JDK 21+, and are bounded by {@code threads}
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessagePreloadable
+ */
+@CommonsLog
+@SuppressWarnings("unused")
+public class MessageResourcePreloader implements SmartInitializingSingleton {
+    private static final String THREAD_PREFIX = "message-resource-preload-";    // $NON-NLS-1$
+    private static final String PROBE_CODE = MessageResourcePreloader.class.getName() + ".probe";    // $NON-NLS-1$
+
+    private final BeanFactory beanFactory;
+
+    /**
+     * The locales to preload, the default locale will be used if empty
+     */
+    @Setter
+    @Nullable
+    private List<Locale> locales;
+
+    /**
+     * The maximum count of the loading threads, the count of available processors will be used if not positive
+     */
+    @Setter
+    private int threads;
+
+    public MessageResourcePreloader(@Nonnull BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!beanFactory.containsBean(MessageResourceAutoConfiguration.MESSAGE_SOURCE)) {
+            return;
+        }
+        MessageSource messageSource = beanFactory.getBean(MessageResourceAutoConfiguration.MESSAGE_SOURCE, MessageSource.class);
+        Set<Locale> preloadLocales = new LinkedHashSet<>();
+        if (CollectionUtils.isEmpty(locales)) {
+            preloadLocales.add(Locale.getDefault());
+        } else {
+            preloadLocales.addAll(locales);
+        }
+        long startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool((threads > 0) ? threads : Runtime.getRuntime().availableProcessors(), newThreadFactory());
+        try {
+            preloadBundles(messageSource, preloadLocales, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Preloaded message bundles of " + preloadLocales + " in " + (System.nanoTime() - startTime) / 1_000_000L + " ms");
+        }
+    }
+
+    /**
+     * Preloads the bundles of the specified message source
+     * <p>
+     * The message sources that are not {@link com.yookue.springstarter.messageresource.support.MessagePreloadable} are warmed up by looking up a missing code for each locale
+     *
+     * @param messageSource the message source to preload
+     * @param locales the locales to preload
+     * @param executor the executor to load the bundles in parallel, or {@code null} to load in the calling thread
+     */
+    public static void preloadBundles(@Nonnull MessageSource messageSource, @Nonnull Collection<Locale> locales, @Nullable Executor executor) {
+        if (messageSource instanceof MessagePreloadable preloadable) {
+            preloadable.preloadBundles(locales, executor);
+            return;
+        }
+        CompletableFuture<?>[] futures = locales.stream().map(locale -> runAsync(() -> messageSource.getMessage(PROBE_CODE, null, null, locale), executor)).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Nonnull
+    public static CompletableFuture<Void> runAsync(@Nonnull Runnable task, @Nullable Executor executor) {
+        if (executor != null) {
+            return CompletableFuture.runAsync(task, executor);
+        }
+        task.run();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Returns a virtual thread factory on JDK 21+, or a daemon platform thread factory otherwise
+     */
+    @Nonnull
+    private static ThreadFactory newThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);    // $NON-NLS-1$
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");    // $NON-NLS-1$
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_PREFIX, 1L);    // $NON-NLS-1$
+            Method factory = builderClass.getMethod("factory");    // $NON-NLS-1$
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException ex) {
+            if (log.isDebugEnabled()) {
+                log.debug("Virtual threads are not available, preloading message bundles with platform threads", ex);
+            }
+        }
+        CustomizableThreadFactory result = new CustomizableThreadFactory(THREAD_PREFIX);
+        result.setDaemon(true);
+        return result;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import jakarta.annotation.Nonnull;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * Watcher for bundle file directories, based on {@link java.nio.file.WatchService}
+ * <p>
+ * Changed files are handled by a single background thread, so that request threads never do file I/O
+ *
+ * @author David Hsing
+ */
+@CommonsLog
+@SuppressWarnings("unused")
+public class MessageResourceWatcher implements Closeable {
+    private static final String THREAD_NAME = "message-resource-watcher";    // $NON-NLS-1$
+
+    private final Consumer<Path> changeHandler;
+    private final Runnable overflowHandler;
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+    private WatchService watchService;
+    private Thread watchThread;
+    private volatile boolean running;
+
+    /**
+     * Constructs a new watcher
+     *
+     * @param changeHandler the handler for a created, modified or deleted file
+     * @param overflowHandler the handler when some events have been lost
+     */
+    public MessageResourceWatcher(@Nonnull Consumer<Path> changeHandler, @Nonnull Runnable overflowHandler) {
+        this.changeHandler = changeHandler;
+        this.overflowHandler = overflowHandler;
+    }
+
+    /**
+     * Watches the specified directory, starts the background thread at first time
+     *
+     * @param directory the directory to watch
+     */
+    public synchronized void register(@Nonnull Path directory) throws IOException {
+        if (directories.contains(directory)) {
+            return;
+        }
+        if (watchService == null) {
+            watchService = directory.getFileSystem().newWatchService();
+            running = true;
+            watchThread = new Thread(this::processEvents, THREAD_NAME);
+            watchThread.setDaemon(true);
+            watchThread.start();
+        }
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        directories.add(directory);
+    }
+
+    public boolean isWatching(@Nonnull Path directory) {
+        return directories.contains(directory);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        running = false;
+        directories.clear();
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+        if (watchThread != null) {
+            watchThread.interrupt();
+            watchThread = null;
+        }
+    }
+
+    private void processEvents() {
+        WatchService service = watchService;
+        while (running) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException ex) {
+                return;
+            }
+            Path directory = (Path) key.watchable();
+            boolean overflow = false;
+            Set<Path> changes = new LinkedHashSet<>();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                } else if (event.context() instanceof Path path) {
+                    changes.add(directory.resolve(path));
+                }
+            }
+            key.reset();
+            try {
+                if (overflow) {
+                    overflowHandler.run();
+                } else {
+                    changes.forEach(changeHandler);
+                }
+            } catch (RuntimeException ex) {
+                if (log.isWarnEnabled()) {
+                    log.warn("Failed to reload message bundles under " + directory, ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.text.MessageFormat;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
+import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
+import com.yookue.springstarter.messageresource.util.MessageResourceDetectorUtils;
+import com.yookue.springstarter.messageresource.util.MessageResourceSizeUtils;
+import lombok.Setter;
+
+
+/**
+ * {@link org.springframework.context.support.ReloadableResourceBundleMessageSource} that notifies listeners when its bundle files are refreshed
+ * <p>
+ * When the cache duration is set, the bundle file that each code and locale resolves from is cached as well, including the codes that resolve nowhere,
+ * so that repeated lookups skip the probes along the candidate files. A cached resolution expires after the cache duration, or when any loaded file changes.
+ * The missing codes are rejected by a filter of the known codes of each locale, which is rebuilt on the same conditions
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessageReloadListener
+ */
+@SuppressWarnings("unused")
+public class ReloadableResourceMessageSource extends ReloadableResourceBundleMessageSource implements MessageBundleInspectable, MessageHotKeyAware, MessagePreloadable, MessageReloadObservable {
+    private static final String FILE_EXTENSION = CharVariantConst.DOT + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
+    private static final String FILE_CACHE = "file";    // $NON-NLS-1$
+    private final List<MessageReloadListener> reloadListeners = new CopyOnWriteArrayList<>();
+    private int resolutionCacheSize = CompiledResourceMessageSource.DEFAULT_RESOLUTION_CACHE_SIZE;
+    private volatile MessageResolutionCache<ResolutionKey, ResolvedFile> fileCache = new MessageResolutionCache<>(resolutionCacheSize, this::resolveFile);
+    private final ConcurrentMap<Locale, MessageCodeFilter> codeFilters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Locale, Long> preloadedTimes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FileLoad> fileLoads = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PropertiesHolder> refreshedHolders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Locale, PropertiesHolder> mergedProperties = new ConcurrentHashMap<>();
+    private volatile MessageHotKeyCache hotKeyCache;
+
+    /**
+     * The false positive probability of the filters of the known codes, an exact hash set will be used if zero, no filters if negative
+     */
+    @Setter
+    private double codeFilterProbability = 0.01D;
+
+    /**
+     * Sets the maximum count of the cached resolutions of codes and locales
+     *
+     * @param size the maximum count of the cached resolutions, zero means no caching
+     */
+    public void setResolutionCacheSize(int size) {
+        this.resolutionCacheSize = size;
+        resetFileCache();
+    }
+
+    @Override
+    public void addReloadListener(@Nonnull MessageReloadListener listener) {
+        reloadListeners.add(listener);
+    }
+
+    @Override
+    public void setHotKeyCache(@Nullable MessageHotKeyCache hotKeyCache) {
+        this.hotKeyCache = hotKeyCache;
+    }
+
+    @Override
+    public void preloadBundles(@Nonnull Collection<Locale> locales, @Nullable Executor executor) {
+        long preloadedTime = System.currentTimeMillis();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Locale locale : locales) {
+            for (String baseName : getBasenameSet()) {
+                futures.add(MessageResourcePreloader.runAsync(() -> calculateAllFilenames(baseName, locale).forEach(this::getProperties), executor));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        if (getCacheMillis() < 0) {
+            locales.forEach(this::getMergedProperties);
+        }
+        locales.forEach(locale -> preloadedTimes.put(locale, preloadedTime));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The locale is preloaded while none of its bundle files, including the missing ones, is due to be checked again by the next lookup
+     */
+    @Override
+    public boolean isPreloaded(@Nonnull Locale locale) {
+        if (!preloadedTimes.containsKey(locale)) {
+            return false;
+        }
+        long expiredTime = System.currentTimeMillis() - getCacheMillis();
+        for (String baseName : getBasenameSet()) {
+            for (String filename : calculateAllFilenames(baseName, locale)) {
+                PropertiesHolder holder = refreshedHolders.get(filename);
+                if (holder == null || (holder.getRefreshTimestamp() >= 0 && holder.getRefreshTimestamp() <= expiredTime)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    @Nonnull
+    public List<MessageBundleStats> getBundleStats() {
+        List<MessageBundleStats> result = new ArrayList<>();
+        fileLoads.forEach((filename, load) -> {
+            Map.Entry<String, Locale> bundle = parseFilename(filename);
+            Properties properties = load.holder().getProperties();
+            if (bundle != null && properties != null) {
+                result.add(new MessageBundleStats(bundle.getKey(), bundle.getValue(), properties.size(), MessageResourceSizeUtils.estimateStrings(properties), load.loadedTime(), load.loadNanos()));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    @Nonnull
+    public Map<String, MessageCacheStats> getCacheStats() {
+        Map<String, MessageCacheStats> result = new LinkedHashMap<>();
+        result.put(FILE_CACHE, MessageCacheStats.of(fileCache));
+        return result;
+    }
+
+    /**
+     * Refreshes the loaded bundle files of the specified base name and locale eagerly, regardless of their timestamps
+     */
+    @Override
+    public int evictBundles(@Nullable String baseName, @Nullable Locale locale) {
+        int result = 0;
+        for (String filename : List.copyOf(fileLoads.keySet())) {
+            Map.Entry<String, Locale> bundle = parseFilename(filename);
+            if (bundle == null || (baseName != null && !StringUtils.equals(baseName, bundle.getKey())) || (locale != null && !locale.equals(bundle.getValue()))) {
+                continue;
+            }
+            refreshProperties(filename, null);
+            result++;
+        }
+        if (result > 0) {
+            mergedProperties.clear();
+            resetFileCache();
+            MessageHotKeyCache cache = hotKeyCache;
+            if (cache != null) {
+                cache.invalidate();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Nullable
+    protected String getMessageInternal(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale) {
+        MessageHotKeyCache cache = hotKeyCache;
+        return (cache == null) ? super.getMessageInternal(code, args, locale) : cache.getMessage(code, args, locale, super::getMessageInternal);
+    }
+
+    @Override
+    @Nullable
+    protected String resolveCodeWithoutArguments(@Nonnull String code, @Nonnull Locale locale) {
+        if (getCacheMillis() < 0) {
+            return super.resolveCodeWithoutArguments(code, locale);
+        }
+        if (!mightContain(code, locale)) {
+            return null;
+        }
+        if (resolutionCacheSize == 0) {
+            return super.resolveCodeWithoutArguments(code, locale);
+        }
+        String filename = getResolvedFilename(code, locale);
+        String result = (filename == null) ? null : getProperties(filename).getProperty(code);
+        return (result != null || filename == null) ? result : super.resolveCodeWithoutArguments(code, locale);
+    }
+
+    @Override
+    @Nullable
+    protected MessageFormat resolveCode(@Nonnull String code, @Nonnull Locale locale) {
+        if (getCacheMillis() < 0) {
+            return super.resolveCode(code, locale);
+        }
+        if (!mightContain(code, locale)) {
+            return null;
+        }
+        if (resolutionCacheSize == 0) {
+            return super.resolveCode(code, locale);
+        }
+        String filename = getResolvedFilename(code, locale);
+        MessageFormat result = (filename == null) ? null : getProperties(filename).getMessageFormat(code, locale);
+        return (result != null || filename == null) ? result : super.resolveCode(code, locale);
+    }
+
+    @Override
+    public void clearCache() {
+        super.clearCache();
+        preloadedTimes.clear();
+        fileLoads.clear();
+        refreshedHolders.clear();
+        mergedProperties.clear();
+        resetFileCache();
+        MessageHotKeyCache cache = hotKeyCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The merged properties are cached by this class, so that they could be dropped when evicting bundles
+     */
+    @Override
+    @Nonnull
+    protected PropertiesHolder getMergedProperties(@Nonnull Locale locale) {
+        PropertiesHolder result = mergedProperties.get(locale);
+        if (result == null) {
+            result = mergeProperties(collectPropertiesToMerge(locale));
+            PropertiesHolder existing = mergedProperties.putIfAbsent(locale, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Nonnull
+    protected PropertiesHolder refreshProperties(@Nonnull String filename, @Nullable PropertiesHolder propHolder) {
+        long startTime = System.nanoTime();
+        PropertiesHolder result = super.refreshProperties(filename, propHolder);
+        long elapsed = System.nanoTime() - startTime;
+        refreshedHolders.put(filename, result);
+        if (result.getProperties() == null) {
+            fileLoads.remove(filename);
+        } else if (result != propHolder) {
+            fileLoads.put(filename, new FileLoad(result, System.currentTimeMillis(), elapsed));
+        }
+        // The holder is kept when the file is not modified, while a missing file gets a new empty holder on each refresh
+        boolean changed = propHolder != null && result != propHolder && (propHolder.getProperties() != null || result.getProperties() != null);
+        if (changed) {
+            resetFileCache();
+            reloadListeners.forEach(listener -> listener.onReload(filename, elapsed));
+        }
+        return result;
+    }
+
+    private boolean mightContain(@Nonnull String code, @Nonnull Locale locale) {
+        if (codeFilterProbability < 0.0D) {
+            return true;
+        }
+        MessageCodeFilter filter = codeFilters.get(locale);
+        if (filter == null || filter.isExpired(getCacheMillis())) {
+            filter = createCodeFilter(locale);
+            codeFilters.put(locale, filter);
+        }
+        return filter.mightContain(code);
+    }
+
+    @Nonnull
+    private MessageCodeFilter createCodeFilter(@Nonnull Locale locale) {
+        Set<String> codes = new HashSet<>();
+        for (String basename : getBasenameSet()) {
+            for (String filename : calculateAllFilenames(basename, locale)) {
+                Properties properties = getProperties(filename).getProperties();
+                if (properties != null) {
+                    codes.addAll(properties.stringPropertyNames());
+                }
+            }
+        }
+        return new MessageCodeFilter(codes, codeFilterProbability);
+    }
+
+    /**
+     * Returns the cached bundle file that the code and locale resolves from, resolving again if expired
+     */
+    @Nullable
+    private String getResolvedFilename(@Nonnull String code, @Nonnull Locale locale) {
+        ResolutionKey key = new ResolutionKey(code, locale);
+        MessageResolutionCache<ResolutionKey, ResolvedFile> cache = fileCache;
+        ResolvedFile result = cache.get(key);
+        if (result == null || System.currentTimeMillis() - result.resolvedTime() > getCacheMillis()) {
+            cache.remove(key);
+            result = cache.get(key);
+        }
+        return (result == null) ? null : result.filename();
+    }
+
+    @Nonnull
+    private ResolvedFile resolveFile(@Nonnull ResolutionKey key) {
+        long resolvedTime = System.currentTimeMillis();
+        for (String basename : getBasenameSet()) {
+            for (String filename : calculateAllFilenames(basename, key.locale())) {
+                if (getProperties(filename).getProperty(key.code()) != null) {
+                    return new ResolvedFile(filename, resolvedTime);
+                }
+            }
+        }
+        return new ResolvedFile(null, resolvedTime);
+    }
+
+    /**
+     * Returns the base name and locale of the specified bundle file, the default file is represented as {@link java.util.Locale#ROOT}
+     */
+    @Nullable
+    private Map.Entry<String, Locale> parseFilename(@Nonnull String filename) {
+        for (String basename : getBasenameSet()) {
+            if (StringUtils.equals(filename, basename)) {
+                return new AbstractMap.SimpleImmutableEntry<>(basename, Locale.ROOT);
+            }
+        }
+        Map.Entry<String, Locale> result = MessageResourceDetectorUtils.parseBundlePath(filename + FILE_EXTENSION);
+        return (result != null && getBasenameSet().contains(result.getKey())) ? result : null;
+    }
+
+    /**
+     * Replaces the resolution cache rather than clearing it, so that a resolution of the former files never goes into the new cache, and drops the filters
+     */
+    private void resetFileCache() {
+        fileCache = new MessageResolutionCache<>(resolutionCacheSize, this::resolveFile);
+        codeFilters.clear();
+    }
+
+
+    /**
+     * Key of the cached resolutions of a code and locale
+     */
+    private record ResolutionKey(@Nonnull String code, @Nonnull Locale locale) {
+    }
+
+
+    /**
+     * The bundle file that a code and locale resolves from, or {@code null} if resolves nowhere
+     */
+    private record ResolvedFile(@Nullable String filename, long resolvedTime) {
+    }
+
+
+    /**
+     * A loaded bundle file, with the time when it was loaded and the elapsed time of loading
+     */
+    private record FileLoad(@Nonnull PropertiesHolder holder, long loadedTime, long loadNanos) {
+    }
+}
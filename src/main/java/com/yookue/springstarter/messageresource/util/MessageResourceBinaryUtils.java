@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.util;
+
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import jakarta.annotation.Nonnull;
+import org.springframework.util.ResourceUtils;
+
+
+/**
+ * Utilities for reading and writing the binary message bundle files
+ * <p>
+ * A binary file {@code <bundle-name>.mrb} holds the entries of a bundle file, with a header of {@code magic, version, count},
+ * then the key offsets and the value offsets ({@code count + 1} ints each), then the UTF-8 keys sorted by code point, and the UTF-8 values
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MappedMessageTable
+ * @see com.yookue.springstarter.messageresource.generator.MessageResourceBinaryGenerator
+ */
+@SuppressWarnings("unused")
+public abstract class MessageResourceBinaryUtils {
+    public static final String FILE_EXTENSION = ".mrb";    // $NON-NLS-1$
+    public static final int MAGIC = 0x4D524231;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+
+    /**
+     * Comparator of strings by code point, which is the same as the order of their UTF-8 bytes
+     */
+    public static final Comparator<String> CODE_POINT_ORDER = (first, second) -> {
+        int i = 0, j = 0;
+        while (i < first.length() && j < second.length()) {
+            int left = first.codePointAt(i), right = second.codePointAt(j);
+            if (left != right) {
+                return Integer.compare(left, right);
+            }
+            i += Character.charCount(left);
+            j += Character.charCount(right);
+        }
+        return Boolean.compare(i < first.length(), j < second.length());
+    };
+
+    public static void writeBinary(@Nonnull Map<String, String> entries, @Nonnull OutputStream stream) throws IOException {
+        List<String> keys = new ArrayList<>(entries.keySet());
+        keys.sort(CODE_POINT_ORDER);
+        List<byte[]> keyBytes = new ArrayList<>(keys.size());
+        List<byte[]> valueBytes = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            keyBytes.add(key.getBytes(StandardCharsets.UTF_8));
+            valueBytes.add(entries.get(key).getBytes(StandardCharsets.UTF_8));
+        }
+        DataOutputStream output = new DataOutputStream(stream);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(keys.size());
+        int offset = HEADER_SIZE + (keys.size() + 1) * 8;
+        offset = writeOffsets(keyBytes, offset, output);
+        writeOffsets(valueBytes, offset, output);
+        for (byte[] bytes : keyBytes) {
+            output.write(bytes);
+        }
+        for (byte[] bytes : valueBytes) {
+            output.write(bytes);
+        }
+        output.flush();
+    }
+
+    /**
+     * Returns the content of the specified binary file, memory mapped if it is on file system
+     *
+     * @param url the url of the binary file
+     *
+     * @return the read only content of the specified binary file
+     */
+    @Nonnull
+    public static ByteBuffer readBinary(@Nonnull URL url) {
+        try {
+            if (ResourceUtils.URL_PROTOCOL_FILE.equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+            try (InputStream stream = url.openStream()) {
+                return ByteBuffer.wrap(stream.readAllBytes()).asReadOnlyBuffer();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read message bundle binary " + url, ex);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("Invalid message bundle binary url " + url, ex);
+        }
+    }
+
+    private static int writeOffsets(@Nonnull List<byte[]> values, int offset, @Nonnull DataOutputStream output) throws IOException {
+        int result = offset;
+        output.writeInt(result);
+        for (byte[] bytes : values) {
+            result += bytes.length;
+            output.writeInt(result);
+        }
+        return result;
+    }
+}
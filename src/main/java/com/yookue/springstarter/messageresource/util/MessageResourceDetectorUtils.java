@@ -17,17 +17,20 @@
 package com.yookue.springstarter.messageresource.util;
 
 
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.util.CollectionUtils;
 import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
 import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
 import com.yookue.commonplexus.javaseutil.util.ArrayUtilsWraps;
-import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
-import com.yookue.commonplexus.javaseutil.util.RegexUtilsWraps;
-import com.yookue.commonplexus.javaseutil.util.StringUtilsWraps;
 import com.yookue.commonplexus.springutil.util.ClassUtilsWraps;
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ScanResult;
@@ -47,11 +50,15 @@ public abstract class MessageResourceDetectorUtils {
     private static final String HIBERNATE_MESSAGES = "org.hibernate.validator.ValidationMessages";    // $NON-NLS-1$
     private static final String SECURITY_VERSION = "org.springframework.security.core.SpringSecurityCoreVersion";    // $NON-NLS-1$
     private static final String SECURITY_MESSAGES = "org.springframework.security.messages";    // $NON-NLS-1$
-    private static final String FILE_PATTERN_2 = "[_\\.]{1}[a-z]{2}\\." + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
-    private static final String FILE_PATTERN_4 = "[_\\.]{1}[a-z]{2}[_\\-]{1}[A-Z]{2}\\." + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
-    private static final String FILE_PATTERN_6 = "[_\\.]{1}[a-z]{2}[_\\-]{1}[A-Z]{4}\\." + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
-    private static final String FILE_PATTERN_7 = "[_\\.]{1}[a-z]{3}[_\\-]{1}[A-Z]{4}\\." + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
-    private static final String FILE_PATTERN_8 = "[_\\.]{1}[a-z]{2}[_\\-]{1}[A-Z]{2}[_\\-]{1}[A-Z]{4}\\." + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
+    private static final String FILE_EXTENSION = CharVariantConst.DOT + StringVariantConst.PROPERTIES;    // $NON-NLS-1$
+
+    /**
+     * The shapes of the locale suffixes, in the order of matching
+     * <p>
+     * A {@code '.'} matches {@code '_'} or {@code '.'}, a {@code '_'} matches {@code '_'} or {@code '-'},
+     * a {@code 'a'} matches a lowercase letter, and a {@code 'A'} matches an uppercase letter
+     */
+    private static final String[] SUFFIX_SHAPES = {".aa_AA_AAAA", ".aaa_AAAA", ".aa_AAAA", ".aa_AA", ".aa"};    // $NON-NLS-1$
 
     @Nullable
     public static Set<String> detectBaseNames(boolean addInternal, boolean scanRecursive, @Nullable String... scanResources) {
@@ -64,27 +71,118 @@ public abstract class MessageResourceDetectorUtils {
             return null;
         }
         Set<String> result = new LinkedHashSet<>();
-        if (addInternal && ClassUtilsWraps.isPresent(HIBERNATE_VALIDATOR)) {
+        if (addInternal) {
+            result.addAll(detectInternalBaseNames());
+        }
+        Map<String, Set<Locale>> bundles = detectBundleLocales(scanRecursive, scanResources);
+        if (!CollectionUtils.isEmpty(bundles)) {
+            result.addAll(bundles.keySet());
+        }
+        return CollectionUtils.isEmpty(result) ? null : result;
+    }
+
+    /**
+     * Returns the base names of the internal bundles that present on the classpath
+     *
+     * @return the base names of the internal bundles that present on the classpath
+     */
+    @Nonnull
+    public static Set<String> detectInternalBaseNames() {
+        Set<String> result = new LinkedHashSet<>();
+        if (ClassUtilsWraps.isPresent(HIBERNATE_VALIDATOR)) {
             result.add(HIBERNATE_MESSAGES);
         }
-        if (addInternal && ClassUtilsWraps.isPresent(SECURITY_VERSION)) {
+        if (ClassUtilsWraps.isPresent(SECURITY_VERSION)) {
             result.add(SECURITY_MESSAGES);
         }
-        if (!CollectionUtils.isEmpty(scanResources)) {
-            String[] paths = org.springframework.util.StringUtils.toStringArray(scanResources);
-            ClassGraph graph = new ClassGraph();
-            graph = scanRecursive ? graph.acceptPaths(paths) : graph.acceptPathsNonRecursive(paths);
-            try (ScanResult scanResult = graph.scan()) {
-                List<String> founds = scanResult.getResourcesWithExtension(StringVariantConst.PROPERTIES).getPaths();
-                if (!CollectionUtils.isEmpty(result)) {
-                    for (String found : founds) {
-                        found = RegexUtilsWraps.removeAll(found, FILE_PATTERN_8, FILE_PATTERN_7, FILE_PATTERN_6, FILE_PATTERN_4, FILE_PATTERN_2);
-                        found = StringUtilsWraps.substringBeforeLast(found, CharVariantConst.DOT);
-                        CollectionPlainWraps.addIfNotBlank(result, found);
-                    }
+        return result;
+    }
+
+    /**
+     * Scans the classpath for bundle files, and returns the available locales of each base name
+     *
+     * @param scanRecursive whether to scan the {@code scanResources} recursive
+     * @param scanResources the resource paths to scan for messages
+     *
+     * @return the available locales of each base name, the default file is represented as {@link java.util.Locale#ROOT}
+     */
+    @Nullable
+    public static Map<String, Set<Locale>> detectBundleLocales(boolean scanRecursive, @Nullable List<String> scanResources) {
+        return detectBundleLocales(scanRecursive, scanResources, 0);
+    }
+
+    /**
+     * Scans the classpath for bundle files with the specified worker threads, and returns the available locales of each base name
+     *
+     * @param scanRecursive whether to scan the {@code scanResources} recursive
+     * @param scanResources the resource paths to scan for messages
+     * @param scanThreads the count of the scanning worker threads, zero or negative means the default count of ClassGraph
+     *
+     * @return the available locales of each base name, the default file is represented as {@link java.util.Locale#ROOT}
+     */
+    @Nullable
+    public static Map<String, Set<Locale>> detectBundleLocales(boolean scanRecursive, @Nullable List<String> scanResources, int scanThreads) {
+        if (CollectionUtils.isEmpty(scanResources)) {
+            return null;
+        }
+        String[] paths = org.springframework.util.StringUtils.toStringArray(scanResources);
+        ClassGraph graph = new ClassGraph();
+        graph = scanRecursive ? graph.acceptPaths(paths) : graph.acceptPathsNonRecursive(paths);
+        Map<String, Set<Locale>> result = new LinkedHashMap<>();
+        try (ScanResult scanResult = (scanThreads > 0) ? graph.scan(scanThreads) : graph.scan()) {
+            for (String found : scanResult.getResourcesWithExtension(StringVariantConst.PROPERTIES).getPaths()) {
+                Map.Entry<String, Locale> bundle = parseBundlePath(found);
+                if (bundle != null) {
+                    result.computeIfAbsent(bundle.getKey(), key -> new LinkedHashSet<>()).add(bundle.getValue());
                 }
             }
         }
         return CollectionUtils.isEmpty(result) ? null : result;
     }
+
+    /**
+     * Parses the specified bundle file path into base name and locale
+     *
+     * @param path the bundle file path, such as {@code lang/messages_zh_CN.properties}
+     *
+     * @return the base name and locale of the bundle file, the default file is represented as {@link java.util.Locale#ROOT}
+     */
+    @Nullable
+    public static Map.Entry<String, Locale> parseBundlePath(@Nullable String path) {
+        if (StringUtils.isBlank(path)) {
+            return null;
+        }
+        if (path.endsWith(FILE_EXTENSION)) {
+            int end = path.length() - FILE_EXTENSION.length();
+            for (String shape : SUFFIX_SHAPES) {
+                int start = end - shape.length();
+                if (matchesShape(path, start, shape)) {
+                    Locale locale = org.springframework.util.StringUtils.parseLocale(path.substring(start + 1, end));
+                    String baseName = path.substring(0, start);
+                    return StringUtils.isBlank(baseName) || locale == null ? null : new AbstractMap.SimpleImmutableEntry<>(baseName, locale);
+                }
+            }
+        }
+        String baseName = StringUtils.substringBeforeLast(path, String.valueOf(CharVariantConst.DOT));
+        return StringUtils.isBlank(baseName) ? null : new AbstractMap.SimpleImmutableEntry<>(baseName, Locale.ROOT);
+    }
+
+    private static boolean matchesShape(@Nonnull String path, int start, @Nonnull String shape) {
+        if (start < 0) {
+            return false;
+        }
+        for (int i = 0; i < shape.length(); i++) {
+            char actual = path.charAt(start + i);
+            boolean matched = switch (shape.charAt(i)) {
+                case '.' -> actual == '_' || actual == '.';
+                case '_' -> actual == '_' || actual == '-';
+                case 'a' -> actual >= 'a' && actual <= 'z';
+                default -> actual >= 'A' && actual <= 'Z';
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.util;
+
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+
+
+/**
+ * Utilities for reading and writing the build-time message bundle index
+ * <p>
+ * Each line of the index is in the form of {@code basename=locale,locale}, the default file is represented as an empty locale
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.generator.MessageResourceIndexGenerator
+ */
+@SuppressWarnings("unused")
+public abstract class MessageResourceIndexUtils {
+    public static final String INDEX_LOCATION = "META-INF/message-resource.idx";    // $NON-NLS-1$
+    public static final String AOT_INDEX_LOCATION = "META-INF/message-resource-aot.idx";    // $NON-NLS-1$
+    private static final char KEY_SEPARATOR = '=';
+    private static final char LOCALE_SEPARATOR = ',';
+    private static final char PATH_SEPARATOR = '/';
+    private static final char COMMENT_PREFIX = '#';
+
+    /**
+     * Returns the indexed bundles that under the specified scan paths
+     *
+     * @param loader the class loader to find the index files
+     * @param scanRecursive whether to match the {@code scanResources} recursive
+     * @param scanResources the resource paths to scan for messages
+     *
+     * @return the indexed bundles that under the specified scan paths, or {@code null} if there are no index files, or none of the indexed bundles is under the scan paths
+     */
+    @Nullable
+    public static Map<String, Set<Locale>> loadIndex(@Nullable ClassLoader loader, boolean scanRecursive, @Nullable List<String> scanResources) {
+        return loadIndex(loader, scanRecursive, scanResources, null);
+    }
+
+    /**
+     * Returns the indexed bundles that under the specified scan paths, reading the index files in the classpath roots of the specified packages only
+     * <p>
+     * The index file of a dependency jar does not list the bundles of the application, so it should never take the place of scanning
+     *
+     * @param loader the class loader to find the index files
+     * @param scanRecursive whether to match the {@code scanResources} recursive
+     * @param scanResources the resource paths to scan for messages
+     * @param trustedPackages the packages whose classpath roots hold the trusted index files, such as the auto-configuration packages, or {@code null} to trust all the index files
+     *
+     * @return the indexed bundles that under the specified scan paths, or {@code null} if there are no trusted index files, or none of the indexed bundles is under the scan paths
+     */
+    @Nullable
+    public static Map<String, Set<Locale>> loadIndex(@Nullable ClassLoader loader, boolean scanRecursive, @Nullable List<String> scanResources, @Nullable Collection<String> trustedPackages) {
+        if (CollectionUtils.isEmpty(scanResources)) {
+            return null;
+        }
+        ClassLoader classLoader = (loader != null) ? loader : ClassUtils.getDefaultClassLoader();
+        if (classLoader == null) {
+            return null;
+        }
+        Set<String> trustedRoots = (trustedPackages == null) ? null : resolveRoots(classLoader, trustedPackages);
+        Map<String, Set<Locale>> indexes = readIndex(classLoader, INDEX_LOCATION, trustedRoots);
+        if (indexes == null) {
+            return null;
+        }
+        Map<String, Set<Locale>> result = new LinkedHashMap<>();
+        indexes.forEach((baseName, locales) -> {
+            if (scanResources.stream().anyMatch(path -> matchesPath(baseName, path, scanRecursive))) {
+                result.put(baseName, locales);
+            }
+        });
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Returns all the indexed bundles, merged from all the index files of the class loader
+     *
+     * @param loader the class loader to find the index files
+     *
+     * @return all the indexed bundles, or {@code null} if there are no index files
+     */
+    @Nullable
+    public static Map<String, Set<Locale>> readIndex(@Nullable ClassLoader loader) {
+        return readIndex(loader, INDEX_LOCATION);
+    }
+
+    /**
+     * Returns all the indexed bundles, merged from all the index files of the specified location
+     *
+     * @param loader the class loader to find the index files
+     * @param location the resource location of the index files
+     *
+     * @return all the indexed bundles, or {@code null} if there are no index files
+     */
+    @Nullable
+    public static Map<String, Set<Locale>> readIndex(@Nullable ClassLoader loader, @Nonnull String location) {
+        ClassLoader classLoader = (loader != null) ? loader : ClassUtils.getDefaultClassLoader();
+        return (classLoader == null) ? null : readIndex(classLoader, location, null);
+    }
+
+    /**
+     * Returns the bundles of the specified index file
+     *
+     * @param path the path of the index file
+     *
+     * @return the bundles of the specified index file
+     */
+    @Nonnull
+    public static Map<String, Set<Locale>> readIndex(@Nonnull Path path) throws IOException {
+        Map<String, Set<Locale>> result = new LinkedHashMap<>();
+        readIndex(path.toUri().toURL(), result);
+        return result;
+    }
+
+    public static void writeIndex(@Nonnull Map<String, Set<Locale>> bundles, @Nonnull Writer writer) throws IOException {
+        writer.write(COMMENT_PREFIX + " Generated message resource index, do not edit" + System.lineSeparator());
+        for (Map.Entry<String, Set<Locale>> entry : new TreeMap<>(bundles).entrySet()) {
+            StringBuilder builder = new StringBuilder(entry.getKey()).append(KEY_SEPARATOR);
+            if (!CollectionUtils.isEmpty(entry.getValue())) {
+                entry.getValue().stream().map(Locale::toString).sorted(Comparator.naturalOrder()).forEach(locale -> builder.append(locale).append(LOCALE_SEPARATOR));
+                builder.setLength(builder.length() - 1);
+            }
+            writer.write(builder.append(System.lineSeparator()).toString());
+        }
+    }
+
+    @Nullable
+    private static Map<String, Set<Locale>> readIndex(@Nonnull ClassLoader loader, @Nonnull String location, @Nullable Set<String> trustedRoots) {
+        try {
+            Map<String, Set<Locale>> result = null;
+            Enumeration<URL> urls = loader.getResources(location);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if (trustedRoots != null && !trustedRoots.contains(toRoot(url, location))) {
+                    continue;
+                }
+                if (result == null) {
+                    result = new LinkedHashMap<>();
+                }
+                readIndex(url, result);
+            }
+            return result;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read message resource index from " + location, ex);
+        }
+    }
+
+    /**
+     * Returns the classpath roots that contain any of the specified packages
+     */
+    @Nonnull
+    private static Set<String> resolveRoots(@Nonnull ClassLoader loader, @Nonnull Collection<String> packages) {
+        Set<String> result = new HashSet<>();
+        for (String packageName : packages) {
+            String path = ClassUtils.convertClassNameToResourcePath(packageName);
+            try {
+                Enumeration<URL> urls = loader.getResources(path);
+                while (urls.hasMoreElements()) {
+                    result.add(toRoot(urls.nextElement(), path));
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to resolve the classpath roots of package " + packageName, ex);
+            }
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static String toRoot(@Nonnull URL url, @Nonnull String path) {
+        String location = StringUtils.removeEnd(url.toString(), String.valueOf(PATH_SEPARATOR));
+        return StringUtils.removeEnd(StringUtils.removeEnd(location, StringUtils.strip(path, String.valueOf(PATH_SEPARATOR))), String.valueOf(PATH_SEPARATOR));
+    }
+
+    private static void readIndex(@Nonnull URL url, @Nonnull Map<String, Set<Locale>> result) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int index = line.indexOf(KEY_SEPARATOR);
+                if (line.isEmpty() || line.charAt(0) == COMMENT_PREFIX || index <= 0) {
+                    continue;
+                }
+                Set<Locale> locales = result.computeIfAbsent(line.substring(0, index).trim(), key -> new LinkedHashSet<>());
+                String value = line.substring(index + 1);
+                if (StringUtils.isBlank(value)) {
+                    locales.add(Locale.ROOT);
+                    continue;
+                }
+                for (String locale : StringUtils.splitPreserveAllTokens(value, LOCALE_SEPARATOR)) {
+                    Locale parsed = StringUtils.isBlank(locale) ? Locale.ROOT : org.springframework.util.StringUtils.parseLocale(locale.trim());
+                    locales.add(parsed != null ? parsed : Locale.ROOT);
+                }
+            }
+        }
+    }
+
+    private static boolean matchesPath(@Nonnull String baseName, @Nullable String path, boolean recursive) {
+        String prefix = StringUtils.strip(path, String.valueOf(PATH_SEPARATOR));
+        if (StringUtils.isEmpty(prefix)) {
+            return recursive || baseName.indexOf(PATH_SEPARATOR) < 0;
+        }
+        if (!baseName.startsWith(prefix + PATH_SEPARATOR)) {
+            return false;
+        }
+        return recursive || baseName.indexOf(PATH_SEPARATOR, prefix.length() + 1) < 0;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.util;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import com.yookue.springstarter.messageresource.support.BatchMessageSource;
+
+
+/**
+ * Utilities for resolving a batch of messages
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.BatchMessageSource
+ */
+@SuppressWarnings("unused")
+public abstract class MessageResourceResolveUtils {
+    /**
+     * Resolves the messages of the specified resolvables, in one pass if the message source is a {@link com.yookue.springstarter.messageresource.support.BatchMessageSource}
+     *
+     * @param source the message source to resolve with
+     * @param resolvables the resolvables to resolve, such as the errors of a {@link org.springframework.validation.BindingResult}
+     * @param locale the locale of the messages, or {@code null} for the default locale
+     *
+     * @return the resolved messages in the order of the resolvables, {@code null} for those could not be resolved
+     */
+    @Nonnull
+    public static List<String> resolveAll(@Nonnull MessageSource source, @Nullable Collection<? extends MessageSourceResolvable> resolvables, @Nullable Locale locale) {
+        if (resolvables == null || resolvables.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (source instanceof BatchMessageSource batch) {
+            return batch.resolveAll(resolvables, locale);
+        }
+        List<String> result = new ArrayList<>(resolvables.size());
+        for (MessageSourceResolvable resolvable : resolvables) {
+            result.add(resolveMessage(source, resolvable, locale));
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the message of the specified resolvable, without throwing {@link org.springframework.context.NoSuchMessageException}
+     */
+    @Nullable
+    public static String resolveMessage(@Nonnull MessageSource source, @Nonnull MessageSourceResolvable resolvable, @Nullable Locale locale) {
+        try {
+            return source.getMessage(resolvable, (locale != null) ? locale : Locale.getDefault());
+        } catch (NoSuchMessageException ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.util;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.CollectionUtils;
+import io.github.classgraph.ClassGraph;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * Utilities for caching the classpath scanning results of message bundles on disk
+ * <p>
+ * The cache file is in the format of the build-time index, and is named by a hash of the scan arguments,
+ * the classpath entries with their sizes and modified times, and the files under the scan resources of the directory entries.
+ * So a restart with an unchanged classpath reads the cache file instead of scanning
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.util.MessageResourceIndexUtils
+ */
+@CommonsLog
+@SuppressWarnings("unused")
+public abstract class MessageResourceScanCacheUtils {
+    private static final String FILE_PREFIX = "message-resource-";    // $NON-NLS-1$
+    private static final String FILE_SUFFIX = ".idx";    // $NON-NLS-1$
+    private static final String HASH_ALGORITHM = "SHA-256";    // $NON-NLS-1$
+    private static final char PATH_SEPARATOR = '/';
+
+    /**
+     * Returns the bundles from the cache file if the classpath is unchanged, otherwise scans the classpath and writes the cache file
+     *
+     * @param cacheDirectory the directory of the cache files, or {@code null} for scanning without cache
+     * @param scanRecursive whether to scan the {@code scanResources} recursive
+     * @param scanResources the resource paths to scan for messages
+     * @param scanThreads the count of the scanning worker threads, zero or negative means the default count of ClassGraph
+     *
+     * @return the available locales of each base name, the default file is represented as {@link java.util.Locale#ROOT}
+     */
+    @Nullable
+    public static Map<String, Set<Locale>> detectBundleLocales(@Nullable Path cacheDirectory, boolean scanRecursive, @Nullable List<String> scanResources, int scanThreads) {
+        if (cacheDirectory == null || CollectionUtils.isEmpty(scanResources)) {
+            return MessageResourceDetectorUtils.detectBundleLocales(scanRecursive, scanResources, scanThreads);
+        }
+        Path cacheFile = cacheDirectory.resolve(FILE_PREFIX + hashClasspath(scanRecursive, scanResources) + FILE_SUFFIX);
+        if (Files.isRegularFile(cacheFile)) {
+            try {
+                Map<String, Set<Locale>> cached = MessageResourceIndexUtils.readIndex(cacheFile);
+                if (log.isDebugEnabled()) {
+                    log.debug("Read message bundles from scan cache " + cacheFile);
+                }
+                return CollectionUtils.isEmpty(cached) ? null : cached;
+            } catch (IOException ex) {
+                log.warn("Failed to read message resource scan cache " + cacheFile, ex);
+            }
+        }
+        Map<String, Set<Locale>> result = MessageResourceDetectorUtils.detectBundleLocales(scanRecursive, scanResources, scanThreads);
+        writeCache(cacheFile, result);
+        return result;
+    }
+
+    /**
+     * Returns the hash of the scan arguments and the current classpath
+     *
+     * @param scanRecursive whether to scan the {@code scanResources} recursive
+     * @param scanResources the resource paths to scan for messages
+     *
+     * @return the hex hash of the scan arguments and the current classpath
+     */
+    @Nonnull
+    public static String hashClasspath(boolean scanRecursive, @Nonnull List<String> scanResources) {
+        MessageDigest digest = newDigest();
+        update(digest, String.valueOf(scanRecursive));
+        scanResources.forEach(resource -> update(digest, resource));
+        for (File entry : new ClassGraph().getClasspathFiles()) {
+            Path path = entry.toPath();
+            update(digest, path.toString());
+            if (Files.isDirectory(path)) {
+                scanResources.forEach(resource -> hashDirectory(digest, path, resource, scanRecursive));
+            } else {
+                hashFile(digest, path);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void hashDirectory(@Nonnull MessageDigest digest, @Nonnull Path root, @Nullable String resource, boolean scanRecursive) {
+        String relative = StringUtils.strip(resource, String.valueOf(PATH_SEPARATOR));
+        Path directory = StringUtils.isEmpty(relative) ? root : root.resolve(relative);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory, scanRecursive ? Integer.MAX_VALUE : 1)) {
+            files.filter(Files::isRegularFile).sorted().forEach(file -> {
+                update(digest, root.relativize(file).toString());
+                hashFile(digest, file);
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to hash message resource directory " + directory, ex);
+        }
+    }
+
+    private static void hashFile(@Nonnull MessageDigest digest, @Nonnull Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            update(digest, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+        } catch (IOException ignored) {
+            update(digest, "-");
+        }
+    }
+
+    private static void writeCache(@Nonnull Path cacheFile, @Nullable Map<String, Set<Locale>> bundles) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            tempFile = Files.createTempFile(cacheFile.getParent(), FILE_PREFIX, null);
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                MessageResourceIndexUtils.writeIndex(bundles != null ? bundles : Map.of(), writer);
+            }
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to write message resource scan cache " + cacheFile, ex);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static void update(@Nonnull MessageDigest digest, @Nonnull String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    @Nonnull
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
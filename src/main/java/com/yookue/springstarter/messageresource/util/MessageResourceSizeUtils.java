@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.util;
+
+
+import java.util.Map;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import com.yookue.springstarter.messageresource.support.CompactMessageTable;
+import com.yookue.springstarter.messageresource.support.CompiledMessage;
+import com.yookue.springstarter.messageresource.support.MappedMessageTable;
+
+
+/**
+ * Utilities for estimating the heap size of the loaded messages
+ * <p>
+ * The estimates assume a 64-bit JVM with compressed references and compact strings,
+ * the objects that are shared between tables (e.g. interned texts) are counted in each table
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.messageresource.support.MessageBundleStats
+ */
+@SuppressWarnings("unused")
+public abstract class MessageResourceSizeUtils {
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int STRING_SIZE = 24;
+    private static final int MESSAGE_SIZE = 24;
+    private static final int ENTRY_SIZE = 32;
+
+    /**
+     * Returns the estimated heap size of the specified table
+     *
+     * @param table the table of a bundle file
+     *
+     * @return the estimated heap size of the specified table, or the size of the binary file if memory mapped
+     */
+    public static long estimateTable(@Nonnull Map<String, CompiledMessage> table) {
+        if (table instanceof CompactMessageTable compact) {
+            return compact.getEstimatedBytes();
+        }
+        if (table instanceof MappedMessageTable mapped) {
+            return mapped.getEstimatedBytes();
+        }
+        long result = estimateArray(table.size() * 2, REFERENCE_SIZE);
+        for (Map.Entry<String, CompiledMessage> entry : table.entrySet()) {
+            result += ENTRY_SIZE + estimateString(entry.getKey()) + estimateMessage(entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the estimated heap size of the specified map of strings, such as a {@link java.util.Properties}
+     *
+     * @param map the map of strings
+     *
+     * @return the estimated heap size of the specified map of strings
+     */
+    public static long estimateStrings(@Nonnull Map<?, ?> map) {
+        long result = estimateArray(map.size() * 2, REFERENCE_SIZE);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            result += ENTRY_SIZE;
+            if (entry.getKey() instanceof String key) {
+                result += estimateString(key);
+            }
+            if (entry.getValue() instanceof String value) {
+                result += estimateString(value);
+            }
+        }
+        return result;
+    }
+
+    public static long estimateMessage(@Nullable CompiledMessage message) {
+        return (message == null) ? 0L : MESSAGE_SIZE + estimateString(message.text());
+    }
+
+    public static long estimateString(@Nullable String text) {
+        if (text == null) {
+            return 0L;
+        }
+        boolean latin1 = text.chars().allMatch(ch -> ch <= 0xFF);
+        return STRING_SIZE + estimateArray(text.length(), latin1 ? 1 : 2);
+    }
+
+    public static long estimateArray(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    private static long align(long size) {
+        return (size + 7L) & ~7L;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.messageresource.catalog;
+
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.messageresource.catalog.JdbcMessageCatalogProvider} and
+ * {@link com.yookue.springstarter.messageresource.catalog.CatalogResourceMessageSource}, backed by an in-memory H2 database
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+class JdbcMessageCatalogProviderTest {
+    private static final long AWAIT_MILLIS = 5000L;
+
+    private JdbcDataSource dataSource;
+    private JdbcMessageCatalogProvider provider;
+    private CatalogResourceMessageSource messageSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:catalog-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");    // $NON-NLS-1$
+        provider = new JdbcMessageCatalogProvider(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (messageSource != null) {
+            messageSource.destroy();
+        }
+        execute("SHUTDOWN");    // $NON-NLS-1$
+    }
+
+    @Test
+    void loadMessages() {
+        createTable();
+        insert("greeting", "", "Hello", 1);
+        insert("greeting", "zh_CN", "Ni hao", 2);
+        insert("farewell", "zh_CN", "Zai jian", 3);
+        Assertions.assertEquals(Map.of("greeting", "Hello"), provider.loadMessages(Locale.ROOT));
+        Assertions.assertEquals(Map.of("greeting", "Ni hao", "farewell", "Zai jian"), provider.loadMessages(Locale.SIMPLIFIED_CHINESE));
+        Assertions.assertTrue(provider.loadMessages(Locale.CHINESE).isEmpty());
+        Assertions.assertEquals(Set.of(Locale.ROOT, Locale.SIMPLIFIED_CHINESE), provider.getLocales());
+    }
+
+    @Test
+    void getVersion() {
+        createTable();
+        Assertions.assertNull(provider.getVersion());
+        insert("greeting", "", "Hello", 1);
+        insert("greeting", "zh_CN", "Ni hao", 7);
+        Assertions.assertEquals("7", provider.getVersion());
+        provider.setVersionColumn(null);
+        Assertions.assertNull(provider.getVersion());
+    }
+
+    @Test
+    void loadMessagesFailed() {
+        Assertions.assertThrows(IllegalStateException.class, () -> provider.loadMessages(Locale.ROOT));
+        Assertions.assertThrows(IllegalStateException.class, () -> provider.getLocales());
+        Assertions.assertThrows(IllegalStateException.class, () -> provider.getVersion());
+        provider.setTableName("message_catalog; DROP TABLE message_catalog");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> provider.loadMessages(Locale.ROOT));
+    }
+
+    @Test
+    void resolveMessages() {
+        createTable();
+        insert("greeting", "", "Hello", 1);
+        insert("greeting", "zh_CN", "Ni hao {0}", 2);
+        messageSource = newMessageSource();
+        Assertions.assertEquals("Ni hao David", messageSource.getMessage("greeting", new Object[]{"David"}, Locale.SIMPLIFIED_CHINESE));
+        Assertions.assertEquals("Hello", messageSource.getMessage("greeting", null, Locale.US));
+        Assertions.assertEquals("Parent", messageSource.getMessage("parent", null, Locale.SIMPLIFIED_CHINESE));
+        Assertions.assertEquals(2, messageSource.getBundleStats().size());
+    }
+
+    @Test
+    void refreshSnapshots() {
+        createTable();
+        insert("greeting", "", "Hello", 1);
+        messageSource = newMessageSource();
+        messageSource.setCacheMillis(0L);
+        Assertions.assertEquals("Hello", messageSource.getMessage("greeting", null, Locale.ROOT));
+        execute("UPDATE message_catalog SET message = 'Hi', version = 2");    // $NON-NLS-1$
+        insert("greeting", "zh_CN", "Ni hao", 2);
+        awaitTrue(() -> "Hi".equals(messageSource.getMessage("greeting", null, Locale.ROOT)));
+        awaitTrue(() -> "Ni hao".equals(messageSource.getMessage("greeting", null, Locale.SIMPLIFIED_CHINESE)));
+    }
+
+    @Test
+    void refreshFailed() {
+        createTable();
+        insert("greeting", "", "Hello", 1);
+        messageSource = newMessageSource();
+        messageSource.setCacheMillis(0L);
+        Assertions.assertEquals("Hello", messageSource.getMessage("greeting", null, Locale.ROOT));
+        execute("DROP TABLE message_catalog");    // $NON-NLS-1$
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals("Hello", messageSource.getMessage("greeting", null, Locale.ROOT));
+            sleep();
+        }
+    }
+
+    @Test
+    void loadFailed() {
+        messageSource = newMessageSource();
+        messageSource.setRetryMillis(10L);
+        Assertions.assertEquals("Parent", messageSource.getMessage("parent", null, Locale.ROOT));
+        Assertions.assertEquals("greeting", messageSource.getMessage("greeting", null, "greeting", Locale.ROOT));
+        createTable();
+        insert("greeting", "", "Hello", 1);
+        awaitTrue(() -> "Hello".equals(messageSource.getMessage("greeting", null, null, Locale.ROOT)));
+    }
+
+    @Test
+    void loadLocaleFailed() {
+        createTable();
+        insert("greeting", "", "Hello", 1);
+        insert("greeting", "zh_CN", "Ni hao", 1);
+        insert("greeting", "fr", "Bonjour", 1);
+        messageSource = new CatalogResourceMessageSource(new MessageCatalogProvider() {
+            @Override
+            public Map<String, String> loadMessages(Locale locale) {
+                if (Locale.FRENCH.equals(locale)) {
+                    throw new IllegalStateException("Unavailable locale");
+                }
+                return provider.loadMessages(locale);
+            }
+
+            @Override
+            public Set<Locale> getLocales() {
+                return provider.getLocales();
+            }
+
+            @Override
+            public String getVersion() {
+                return provider.getVersion();
+            }
+        });
+        messageSource.setCacheMillis(0L);
+        Assertions.assertEquals("Hello", messageSource.getMessage("greeting", null, Locale.FRENCH));
+        Assertions.assertEquals("Ni hao", messageSource.getMessage("greeting", null, Locale.SIMPLIFIED_CHINESE));
+        execute("UPDATE message_catalog SET message = 'Hi', version = 2 WHERE locale = 'zh_CN'");    // $NON-NLS-1$
+        awaitTrue(() -> "Hi".equals(messageSource.getMessage("greeting", null, Locale.SIMPLIFIED_CHINESE)));
+        Assertions.assertEquals("Hello", messageSource.getMessage("greeting", null, Locale.FRENCH));
+    }
+
+    @Test
+    void unknownLocales() {
+        createTable();
+        insert("greeting", "", "Hello", 1);
+        messageSource = newMessageSource();
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals("Hello", messageSource.getMessage("greeting", null, new Locale("x" + i)));
+        }
+        Assertions.assertEquals(1, messageSource.getBundleStats().stream().filter(stats -> CatalogResourceMessageSource.CATALOG_BASENAME.equals(stats.baseName())).count());
+    }
+
+    private CatalogResourceMessageSource newMessageSource() {
+        StaticMessageSource parent = new StaticMessageSource();
+        parent.addMessage("parent", Locale.ROOT, "Parent");
+        parent.addMessage("parent", Locale.SIMPLIFIED_CHINESE, "Parent");
+        CatalogResourceMessageSource result = new CatalogResourceMessageSource(provider);
+        result.setParentMessageSource(parent);
+        return result;
+    }
+
+    private void createTable() {
+        execute("CREATE TABLE message_catalog (code VARCHAR(255) NOT NULL, locale VARCHAR(32) NOT NULL, message VARCHAR(1024), version BIGINT)");    // $NON-NLS-1$
+    }
+
+    private void insert(String code, String locale, String message, long version) {
+        execute("INSERT INTO message_catalog (code, locale, message, version) VALUES ('" + code + "', '" + locale + "', '" + message + "', " + version + ")");    // $NON-NLS-1$
+    }
+
+    private void execute(String sql) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Timed out awaiting the condition");
+            sleep();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10L);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.messageresource.support.CompactMessageTable}
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+class CompactMessageTableTest {
+    @Test
+    void emptyBundle() {
+        MessageKeyDictionary dictionary = new MessageKeyDictionary(List.of("greeting", "farewell"));
+        for (boolean packed : new boolean[]{false, true}) {
+            CompactMessageTable table = new CompactMessageTable(dictionary, Map.of(), packed);
+            Assertions.assertEquals(packed, table.isPacked());
+            Assertions.assertEquals(0, table.size());
+            Assertions.assertNull(table.get("greeting"));
+            Assertions.assertFalse(table.containsKey("farewell"));
+            Assertions.assertFalse(table.entrySet().iterator().hasNext());
+        }
+        CompactMessageTable table = new CompactMessageTable(new MessageKeyDictionary(List.of()), Map.of(), true);
+        Assertions.assertTrue(table.isEmpty());
+        Assertions.assertNull(table.get("greeting"));
+    }
+
+    @Test
+    void packLatin1() {
+        Map<String, CompiledMessage> entries = new LinkedHashMap<>();
+        entries.put("greeting", CompiledMessage.of("Hello {0}"));
+        entries.put("latin", CompiledMessage.of("Caf\u00E9 cr\u00E8me \u00FF"));
+        entries.put("quote", CompiledMessage.of("It''s"));
+        entries.put("empty", CompiledMessage.of(""));
+        assertRoundTrip(entries);
+    }
+
+    @Test
+    void packUtf8() {
+        Map<String, CompiledMessage> entries = new LinkedHashMap<>();
+        entries.put("latin", CompiledMessage.of("Caf\u00E9"));
+        entries.put("chinese", CompiledMessage.of("\u4F60\u597D {0}"));
+        entries.put("emoji", CompiledMessage.of("\uD83D\uDE00 smile"));
+        entries.put("ascii", CompiledMessage.of("plain"));
+        assertRoundTrip(entries);
+    }
+
+    @Test
+    void packCharset() {
+        MessageKeyDictionary dictionary = new MessageKeyDictionary(List.of("text"));
+        CompactMessageTable latin1 = new CompactMessageTable(dictionary, Map.of("text", CompiledMessage.of("\u00E9".repeat(64))), true);
+        CompactMessageTable utf8 = new CompactMessageTable(dictionary, Map.of("text", CompiledMessage.of("\u00E9".repeat(63) + "\u0100")), true);
+        Assertions.assertTrue(latin1.getEstimatedBytes() < utf8.getEstimatedBytes());
+        Assertions.assertEquals("\u00E9".repeat(64), latin1.get("text").text());
+        Assertions.assertEquals("\u00E9".repeat(63) + "\u0100", utf8.get("text").text());
+    }
+
+    @Test
+    void keysDifferingInLastByte() {
+        Map<String, CompiledMessage> entries = new LinkedHashMap<>();
+        entries.put("code.a", CompiledMessage.of("a"));
+        entries.put("code.b", CompiledMessage.of("b"));
+        entries.put("code.\u00E9", CompiledMessage.of("e-acute"));
+        entries.put("code.\u00EA", CompiledMessage.of("e-circumflex"));
+        assertRoundTrip(entries);
+    }
+
+    @Test
+    void missingCode() {
+        MessageKeyDictionary dictionary = new MessageKeyDictionary(List.of("greeting", "farewell", "unused"));
+        for (boolean packed : new boolean[]{false, true}) {
+            CompactMessageTable table = new CompactMessageTable(dictionary, Map.of("greeting", CompiledMessage.of("Hello")), packed);
+            Assertions.assertEquals(1, table.size());
+            Assertions.assertNull(table.get("farewell"));
+            Assertions.assertFalse(table.containsKey("farewell"));
+            Assertions.assertNull(table.get("missing"));
+            Assertions.assertNull(table.get(null));
+            Assertions.assertEquals(List.of("greeting"), new ArrayList<>(table.keySet()));
+        }
+    }
+
+    @Test
+    void sparseTable() {
+        List<String> keys = new ArrayList<>();
+        Map<String, CompiledMessage> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add("key." + i);
+            if (i % 3 == 0) {
+                entries.put("key." + i, (i % 2 == 0) ? CompiledMessage.of("shared") : CompiledMessage.of("value {" + i + "}"));
+            }
+        }
+        MessageKeyDictionary dictionary = new MessageKeyDictionary(keys);
+        CompactMessageTable table = new CompactMessageTable(dictionary, entries, true);
+        Assertions.assertEquals(entries, new HashMap<>(table));
+        for (String key : keys) {
+            Assertions.assertEquals(entries.get(key), table.get(key));
+            Assertions.assertEquals(entries.containsKey(key), table.containsKey(key));
+        }
+    }
+
+    private static void assertRoundTrip(Map<String, CompiledMessage> entries) {
+        MessageKeyDictionary dictionary = new MessageKeyDictionary(entries.keySet());
+        for (boolean packed : new boolean[]{false, true}) {
+            CompactMessageTable table = new CompactMessageTable(dictionary, entries, packed);
+            Assertions.assertEquals(entries.size(), table.size());
+            entries.forEach((key, value) -> {
+                Assertions.assertEquals(value, table.get(key));
+                Assertions.assertEquals(value, table.getAt(dictionary.indexOf(key)));
+            });
+            Assertions.assertEquals(entries, new HashMap<>(table));
+        }
+    }
+}
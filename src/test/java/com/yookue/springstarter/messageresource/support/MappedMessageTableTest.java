@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.messageresource.support;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.yookue.springstarter.messageresource.util.MessageResourceBinaryUtils;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.messageresource.support.MappedMessageTable}
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+class MappedMessageTableTest {
+    @Test
+    void emptyBundle() throws IOException {
+        MappedMessageTable table = newTable(Map.of());
+        Assertions.assertEquals(0, table.size());
+        Assertions.assertNull(table.get("greeting"));
+        Assertions.assertFalse(table.containsKey(""));
+        Assertions.assertFalse(table.keySet().iterator().hasNext());
+        Assertions.assertFalse(table.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("greeting", "Hello {0}");
+        entries.put("quote", "It''s");
+        entries.put("latin", "Caf\u00E9");
+        entries.put("chinese", "\u4F60\u597D\uFF0C\u4E16\u754C");
+        entries.put("emoji", "\uD83D\uDE00 smile");
+        entries.put("\u4EE3\u7801", "non-ascii code");
+        entries.put("empty", "");
+        MappedMessageTable table = newTable(entries);
+        Assertions.assertEquals(entries.size(), table.size());
+        entries.forEach((key, value) -> {
+            Assertions.assertTrue(table.containsKey(key));
+            Assertions.assertEquals(CompiledMessage.of(value), table.get(key));
+        });
+        Map<String, CompiledMessage> expected = new HashMap<>();
+        entries.forEach((key, value) -> expected.put(key, CompiledMessage.of(value)));
+        Assertions.assertEquals(expected, new HashMap<>(table));
+    }
+
+    @Test
+    void keysDifferingInLastByte() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("code.a", "a");
+        entries.put("code.b", "b");
+        entries.put("code.\u00E9", "e-acute");
+        entries.put("code.\u00EA", "e-circumflex");
+        entries.put("code.\uD83D\uDE00", "grinning");
+        entries.put("code.\uD83D\uDE01", "beaming");
+        MappedMessageTable table = newTable(entries);
+        entries.forEach((key, value) -> Assertions.assertEquals(value, table.get(key).text()));
+        Assertions.assertNull(table.get("code.c"));
+        Assertions.assertNull(table.get("code.\u00EB"));
+        Assertions.assertNull(table.get("code.\uD83D\uDE02"));
+    }
+
+    @Test
+    void missingCode() throws IOException {
+        MappedMessageTable table = newTable(Map.of("code", "value", "code.child", "child"));
+        Assertions.assertNull(table.get("cod"));
+        Assertions.assertNull(table.get("code."));
+        Assertions.assertNull(table.get("code.child.grandchild"));
+        Assertions.assertNull(table.get("a"));
+        Assertions.assertNull(table.get("z"));
+        Assertions.assertNull(table.get(null));
+        Assertions.assertNull(table.get(1));
+        Assertions.assertFalse(table.containsKey("missing"));
+    }
+
+    @Test
+    void iterateInCodePointOrder() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 99; i >= 0; i--) {
+            entries.put("key." + i, "value " + i);
+        }
+        entries.put("key.\uFFFF", "max");
+        entries.put("key.\uD83D\uDE00", "emoji");
+        MappedMessageTable table = newTable(entries);
+        List<String> expected = new ArrayList<>(entries.keySet());
+        expected.sort(MessageResourceBinaryUtils.CODE_POINT_ORDER);
+        Assertions.assertEquals(expected, new ArrayList<>(table.keySet()));
+        for (String key : expected) {
+            Assertions.assertEquals(entries.get(key), table.get(key).text());
+        }
+    }
+
+    @Test
+    void invalidBinary() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MappedMessageTable(ByteBuffer.allocate(4)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MappedMessageTable(ByteBuffer.allocate(MessageResourceBinaryUtils.HEADER_SIZE + 8)));
+    }
+
+    private static MappedMessageTable newTable(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        MessageResourceBinaryUtils.writeBinary(entries, stream);
+        return new MappedMessageTable(ByteBuffer.wrap(stream.toByteArray()).asReadOnlyBuffer());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.messageresource.util;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.yookue.springstarter.messageresource.support.CompiledMessage;
+import com.yookue.springstarter.messageresource.support.MappedMessageTable;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.messageresource.util.MessageResourceBinaryUtils}
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+class MessageResourceBinaryUtilsTest {
+    @Test
+    void writeEmptyBundle() throws IOException {
+        byte[] bytes = writeBinary(Map.of());
+        Assertions.assertEquals(MessageResourceBinaryUtils.HEADER_SIZE + 8, bytes.length);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Assertions.assertEquals(MessageResourceBinaryUtils.MAGIC, buffer.getInt(0));
+        Assertions.assertEquals(MessageResourceBinaryUtils.VERSION, buffer.getInt(4));
+        Assertions.assertEquals(0, buffer.getInt(8));
+        Assertions.assertTrue(new MappedMessageTable(buffer).isEmpty());
+    }
+
+    @Test
+    void writeSortedKeys() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("key.b", "b");
+        entries.put("key.\uD83D\uDE00", "emoji");
+        entries.put("key.\uFFFF", "max");
+        entries.put("key.a", "a");
+        entries.put("key", "prefix");
+        ByteBuffer buffer = ByteBuffer.wrap(writeBinary(entries));
+        List<String> keys = new ArrayList<>();
+        int count = buffer.getInt(8);
+        for (int i = 0; i < count; i++) {
+            int start = buffer.getInt(MessageResourceBinaryUtils.HEADER_SIZE + i * 4), end = buffer.getInt(MessageResourceBinaryUtils.HEADER_SIZE + i * 4 + 4);
+            keys.add(new String(buffer.array(), start, end - start, StandardCharsets.UTF_8));
+        }
+        Assertions.assertEquals(List.of("key", "key.a", "key.b", "key.\uFFFF", "key.\uD83D\uDE00"), keys);
+    }
+
+    @Test
+    void readFileBinary() throws IOException {
+        Map<String, String> entries = Map.of("greeting", "\u4F60\u597D {0}", "farewell", "Au revoir");
+        Path path = Files.createTempFile("messages", MessageResourceBinaryUtils.FILE_EXTENSION);    // $NON-NLS-1$
+        try {
+            try (OutputStream stream = Files.newOutputStream(path)) {
+                MessageResourceBinaryUtils.writeBinary(entries, stream);
+            }
+            ByteBuffer buffer = MessageResourceBinaryUtils.readBinary(path.toUri().toURL());
+            Assertions.assertTrue(buffer.isReadOnly());
+            Assertions.assertEquals(Files.size(path), buffer.capacity());
+            MappedMessageTable table = new MappedMessageTable(buffer);
+            Assertions.assertEquals(CompiledMessage.of("\u4F60\u597D {0}"), table.get("greeting"));
+            Assertions.assertEquals(CompiledMessage.of("Au revoir"), table.get("farewell"));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static byte[] writeBinary(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        MessageResourceBinaryUtils.writeBinary(entries, stream);
+        return stream.toByteArray();
+    }
+}